@@ -0,0 +1,73 @@
+package ru.practicum.shareit.bench;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Entity graphs shaped like the ones the services map: every booking and comment has its own user and item.
+ */
+@UtilityClass
+public class Fixtures {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    public static User user(long id) {
+        return User.builder()
+                .id(id)
+                .name("User " + id)
+                .email("user" + id + "@example.com")
+                .build();
+    }
+
+    public static Item item(long id) {
+        return Item.builder()
+                .id(id)
+                .name("Item " + id)
+                .description("Description of item " + id)
+                .available(true)
+                .owner(user(id))
+                .build();
+    }
+
+    public static Booking booking(long id) {
+        return Booking.builder()
+                .id(id)
+                .start(NOW.plusDays(id))
+                .end(NOW.plusDays(id).plusHours(2))
+                .item(item(id))
+                .booker(user(id + 1))
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    public static Comment comment(long id) {
+        return Comment.builder()
+                .id(id)
+                .text("Comment " + id)
+                .item(item(id))
+                .author(user(id))
+                .created(NOW.minusDays(id))
+                .build();
+    }
+
+    public static List<CommentDto> commentDtos(int count) {
+        List<CommentDto> comments = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            comments.add(CommentDto.builder()
+                    .id((long) i)
+                    .text("Comment " + i)
+                    .authorName("User " + i)
+                    .created(NOW.minusDays(i))
+                    .build());
+        }
+        return comments;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+/**
+ * Inserts items through the server's repositories in one transaction per invocation, reported as rows per second.
+ * {@code batchSize=1} is the cost of one round trip per row, {@code batchSize=50} the default JDBC batching.
+ * H2 in memory hides most of the round trip, pass {@code -p url=jdbc:postgresql://...} to measure a real database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    private static final int ROWS = 100;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    @Param({"jdbc:h2:mem:bench;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"})
+    private String url;
+
+    private ConfigurableApplicationContext context;
+    private TransactionTemplate transactionTemplate;
+    private ItemRepository itemRepository;
+    private User owner;
+
+    @Setup
+    public void setUp() {
+        boolean h2 = url.startsWith("jdbc:h2:");
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.driver-class-name=" + (h2 ? "org.h2.Driver" : "org.postgresql.Driver"),
+                        "--spring.datasource.url=" + url,
+                        "--spring.sql.init.schema-locations=classpath:schema.sql"
+                                + (h2 ? "" : ",classpath:schema-postgresql.sql"),
+                        "--shareit.sql.statistics.enabled=false",
+                        "--shareit.jpa.batch-size=" + batchSize);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        itemRepository = context.getBean(ItemRepository.class);
+        owner = context.getBean(UserRepository.class)
+                .save(User.builder().name("Owner").email("owner@example.com").build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Item> saveItems() {
+        List<Item> items = IntStream.range(0, ROWS)
+                .mapToObj(i -> Item.builder().name("Item " + i).description("Benchmark item " + i)
+                        .available(true).owner(owner).build())
+                .toList();
+        return transactionTemplate.execute(status -> itemRepository.saveAll(items));
+    }
+}
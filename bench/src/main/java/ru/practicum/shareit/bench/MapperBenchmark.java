@@ -0,0 +1,65 @@
+package ru.practicum.shareit.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemWithBookingDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+    private Item item;
+    private Booking lastBooking;
+    private Booking nextBooking;
+    private List<CommentDto> comments;
+    private Booking booking;
+    private Comment comment;
+
+    @Setup
+    public void setUp() {
+        item = Fixtures.item(1);
+        lastBooking = Fixtures.booking(2);
+        nextBooking = Fixtures.booking(3);
+        comments = Fixtures.commentDtos(5);
+        booking = Fixtures.booking(4);
+        comment = Fixtures.comment(5);
+    }
+
+    @Benchmark
+    public ItemWithBookingDto itemWithBookings() {
+        return ItemMapper.toItemWithBookingDto(item, lastBooking, nextBooking, comments);
+    }
+
+    @Benchmark
+    public BookingResponseDto bookingResponse() {
+        return BookingMapper.toBookingResponseDto(booking);
+    }
+
+    @Benchmark
+    public CommentDto comment() {
+        return CommentMapper.toCommentDto(comment);
+    }
+}
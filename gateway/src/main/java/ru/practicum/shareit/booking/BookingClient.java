@@ -1,58 +1,81 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import jakarta.servlet.http.HttpServletResponse;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchange;
+import ru.practicum.shareit.item.ItemResponseCache;
 
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    private final ItemResponseCache itemCache;
+
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, ServerExchange exchange,
+            ItemResponseCache itemCache) {
+        super(serverUrl + API_PREFIX, exchange);
+        this.itemCache = itemCache;
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public CompletableFuture<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from,
+            Integer size, String after) {
+        return get(listPath("", after), userId, listParameters(state, from, size, after));
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookingDto bookingDto) {
+    public CompletableFuture<ResponseEntity<Object>> bookItem(long userId, BookingDto bookingDto) {
         return post("", userId, bookingDto);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getBooking(long userId, Long bookingId, String ifNoneMatch) {
+        return getIfNoneMatch("/" + bookingId, userId, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> updateBookingStatus(long userId, Long bookingId, Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> updateBookingStatus(long userId, Long bookingId, Boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null)
+                .whenComplete((response, error) -> itemCache.evictOwner(userId));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> updateBookingStatuses(long userId, BookingStatusBatchDto batch) {
+        return patch("/batch", userId, batch)
+                .whenComplete((response, error) -> itemCache.evictOwner(userId));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getOwnerBookings(long userId, BookingState state,
+            Integer from, Integer size, String after) {
+        return get(listPath("/owner", after), userId, listParameters(state, from, size, after));
+    }
+
+    public void exportOwnerBookings(long userId, BookingExportFormat format, HttpServletResponse response)
+            throws IOException {
+        stream("/owner/export?format={format}", userId, Map.of("format", format.name().toLowerCase()), response);
+    }
+
+    private static String listPath(String prefix, String after) {
+        String path = prefix + "?state={state}&from={from}&size={size}";
+        return after == null ? path : path + "&after={after}";
     }
 
-    public ResponseEntity<Object> getOwnerBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    private static Map<String, Object> listParameters(BookingState state, Integer from, Integer size, String after) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (after != null) {
+            parameters.put("after", after);
+        }
+        return parameters;
     }
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -15,11 +18,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
 
 
 @Controller
@@ -30,51 +36,72 @@ public class BookingController {
 	private final BookingClient bookingClient;
 
 	@GetMapping
-	public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+	public CompletableFuture<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "after", required = false) String after) {
 		BookingState state;
 		try {
 			state = BookingState.from(stateParam)
 					.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 		} catch (IllegalArgumentException e) {
-			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Unknown state: " + stateParam));
+			return CompletableFuture.completedFuture(
+					ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Unknown state: " + stateParam)));
 		}
-		return bookingClient.getBookings(userId, state, from, size);
+		return bookingClient.getBookings(userId, state, from, size, after);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
+	public CompletableFuture<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId,
 			@RequestBody @Valid BookingDto bookingDto) {
 		return bookingClient.bookItem(userId, bookingDto);
 	}
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
-			@PathVariable Long bookingId) {
-		return bookingClient.getBooking(userId, bookingId);
+	public CompletableFuture<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
+			@PathVariable Long bookingId,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+		return bookingClient.getBooking(userId, bookingId, ifNoneMatch);
+	}
+
+	@PatchMapping("/batch")
+	public CompletableFuture<ResponseEntity<Object>> updateBookingStatuses(
+			@RequestHeader("X-Sharer-User-Id") long userId,
+			@RequestBody @Valid BookingStatusBatchDto batch) {
+		return bookingClient.updateBookingStatuses(userId, batch);
 	}
 
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> updateBookingStatus(@RequestHeader("X-Sharer-User-Id") long userId,
+	public CompletableFuture<ResponseEntity<Object>> updateBookingStatus(@RequestHeader("X-Sharer-User-Id") long userId,
 			@PathVariable Long bookingId,
 			@RequestParam Boolean approved) {
 		return bookingClient.updateBookingStatus(userId, bookingId, approved);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+	public CompletableFuture<ResponseEntity<Object>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
 			@RequestParam(name = "state", defaultValue = "all") String stateParam,
 			@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+			@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+			@RequestParam(name = "after", required = false) String after) {
 		BookingState state;
 		try {
 			state = BookingState.from(stateParam)
 					.orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 		} catch (IllegalArgumentException e) {
-			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Unknown state: " + stateParam));
+			return CompletableFuture.completedFuture(
+					ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", "Unknown state: " + stateParam)));
 		}
-		return bookingClient.getOwnerBookings(userId, state, from, size);
+		return bookingClient.getOwnerBookings(userId, state, from, size, after);
+	}
+
+	@GetMapping("/owner/export")
+	public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+			@RequestParam(name = "format", defaultValue = "ndjson") String formatParam,
+			HttpServletResponse response) throws IOException {
+		BookingExportFormat format = BookingExportFormat.from(formatParam)
+				.orElseThrow(() -> new IllegalArgumentException("Unknown format: " + formatParam));
+		bookingClient.exportOwnerBookings(userId, format, response);
 	}
 }
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * The {@link ServerExchange} shared by all gateway clients, selected by {@code shareit-server.client}:
+ * {@code blocking} (default) keeps a request thread per call in flight on a pooled Apache HttpClient,
+ * {@code async} sends calls with the JDK HttpClient and releases the request thread until the response arrives.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "blocking", matchIfMissing = true)
+    static class BlockingClientConfig {
+
+        @Bean(destroyMethod = "close")
+        public PoolingHttpClientConnectionManager connectionManager(
+                @Value("${shareit-server.pool.max-total:200}") int maxTotal,
+                @Value("${shareit-server.pool.max-per-route:100}") int maxPerRoute,
+                @Value("${shareit-server.connect-timeout:2s}") Duration connectTimeout,
+                @Value("${shareit-server.response-timeout:30s}") Duration responseTimeout) {
+            return PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(maxTotal)
+                    .setMaxConnPerRoute(maxPerRoute)
+                    .setDefaultConnectionConfig(ConnectionConfig.custom()
+                            .setConnectTimeout(Timeout.of(connectTimeout))
+                            .setSocketTimeout(Timeout.of(responseTimeout))
+                            .build())
+                    .build();
+        }
+
+        @Bean(destroyMethod = "close")
+        public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager,
+                @Value("${shareit-server.pool.idle-eviction:30s}") Duration idleEviction,
+                @Value("${shareit-server.pool.lease-timeout:5s}") Duration leaseTimeout,
+                @Value("${shareit-server.response-timeout:30s}") Duration responseTimeout) {
+            return HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.of(idleEviction))
+                    .setDefaultRequestConfig(RequestConfig.custom()
+                            .setConnectionRequestTimeout(Timeout.of(leaseTimeout))
+                            .setResponseTimeout(Timeout.of(responseTimeout))
+                            .build())
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactory shareItServerRequestFactory(CloseableHttpClient httpClient) {
+            return new HttpComponentsClientHttpRequestFactory(httpClient);
+        }
+
+        @Bean
+        public MeterBinder connectionPoolMetrics(PoolingHttpClientConnectionManager connectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server");
+        }
+
+        @Bean
+        public ServerExchange serverExchange(RestTemplateBuilder builder, ClientHttpRequestFactory requestFactory) {
+            return new RestTemplateServerExchange(builder.requestFactory(() -> requestFactory).build());
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "shareit-server.client", havingValue = "async")
+    static class AsyncClientConfig {
+
+        // Only completes responses, so a few threads serve any number of calls in flight
+        @Bean
+        public ResponseThreads shareItServerResponseThreads(@Value("${shareit-server.async.threads:2}") int threads) {
+            return new ResponseThreads(Executors.newFixedThreadPool(threads));
+        }
+
+        @Bean
+        public HttpClient shareItServerHttpClient(ResponseThreads shareItServerResponseThreads,
+                @Value("${shareit-server.connect-timeout:2s}") Duration connectTimeout) {
+            return HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(connectTimeout)
+                    .executor(shareItServerResponseThreads.executor())
+                    .build();
+        }
+
+        @Bean
+        public ServerExchange serverExchange(HttpClient shareItServerHttpClient, ObjectMapper objectMapper,
+                @Value("${shareit-server.response-timeout:30s}") Duration responseTimeout) {
+            return new HttpClientServerExchange(shareItServerHttpClient, objectMapper, responseTimeout);
+        }
+    }
+
+    /**
+     * Holds the async client's pool and shuts it down with the context. It is not registered as an
+     * {@code Executor} bean, which would make Boot drop its {@code applicationTaskExecutor}.
+     */
+    record ResponseThreads(ExecutorService executor) implements AutoCloseable {
+        @Override
+        public void close() {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Non-blocking exchange on the JDK {@link HttpClient}: no thread waits while the server is working, the
+ * future completes on the client's executor.
+ */
+@RequiredArgsConstructor
+public class HttpClientServerExchange implements ServerExchange {
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final Duration responseTimeout;
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+            @Nullable Object body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(responseTimeout)
+                .method(method.name(), bodyPublisher(body));
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(HttpClientServerExchange::toResponseEntity);
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<InputStream>> open(URI uri, HttpHeaders headers) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(responseTimeout)
+                .GET();
+        headers.forEach((name, values) -> values.forEach(value -> request.header(name, value)));
+
+        return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(HttpClientServerExchange::toResponseEntity);
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(@Nullable Object body) {
+        if (body == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        if (body instanceof byte[] bytes) {
+            return HttpRequest.BodyPublishers.ofByteArray(bytes);
+        }
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize request body: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static <T> ResponseEntity<T> toResponseEntity(HttpResponse<T> response) {
+        HttpHeaders headers = new HttpHeaders();
+        response.headers().map().forEach(headers::addAll);
+        return new ResponseEntity<>(response.body(), headers, HttpStatusCode.valueOf(response.statusCode()));
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.RequestEntity;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Blocking exchange: the calling thread waits for the response, the future is always already complete.
+ */
+@RequiredArgsConstructor
+public class RestTemplateServerExchange implements ServerExchange {
+    private final RestTemplate rest;
+
+    @Override
+    public CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+            @Nullable Object body) {
+        try {
+            return CompletableFuture.completedFuture(
+                    rest.exchange(new RequestEntity<>(body, headers, method, uri), byte[].class));
+        } catch (HttpStatusCodeException e) {
+            return CompletableFuture.completedFuture(new ResponseEntity<>(e.getResponseBodyAsByteArray(),
+                    e.getResponseHeaders(), e.getStatusCode()));
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResponseEntity<InputStream>> open(URI uri, HttpHeaders headers) {
+        try {
+            // Straight on the request factory: RestTemplate closes the response before returning
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().addAll(headers);
+            ClientHttpResponse response = request.execute();
+            InputStream body = new FilterInputStream(response.getBody()) {
+                @Override
+                public void close() {
+                    response.close();
+                }
+            };
+            return CompletableFuture.completedFuture(
+                    new ResponseEntity<>(body, response.getHeaders(), response.getStatusCode()));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+/**
+ * Sends a request to shareit-server. Error statuses complete the future normally, only I/O failures complete
+ * it exceptionally.
+ */
+public interface ServerExchange {
+
+    CompletableFuture<ResponseEntity<byte[]>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+            @Nullable Object body);
+
+    /**
+     * Sends a GET and returns the response body unread, whatever the status. The caller must close it.
+     */
+    CompletableFuture<ResponseEntity<InputStream>> open(URI uri, HttpHeaders headers);
+}
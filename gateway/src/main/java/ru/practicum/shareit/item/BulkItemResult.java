@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    private int line;
+    private Long id;
+    private String error;
+
+    public static BulkItemResult failed(int line, String error) {
+        return new BulkItemResult(line, null, error);
+    }
+}
@@ -0,0 +1,159 @@
+package ru.practicum.shareit.item;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Validates an NDJSON upload line by line, as {@code POST /items} would, and sends the valid lines to the
+ * server in chunks of {@code chunkSize}. Invalid lines are answered by the gateway, the others by the server.
+ * The results of a chunk are written and flushed before the next chunk is read, so only one chunk is in memory.
+ */
+@Component
+public class ItemBulkImport {
+    private final ItemClient itemClient;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public ItemBulkImport(ItemClient itemClient, ObjectMapper objectMapper, Validator validator,
+            @Value("${shareit.items.bulk.chunk-size:500}") int chunkSize) {
+        this.itemClient = itemClient;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public void importItems(long userId, InputStream body, HttpServletResponse response) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        Chunk chunk = new Chunk();
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            add(chunk, lineNumber, line);
+            if (chunk.size() == chunkSize) {
+                if (!send(userId, chunk, response)) {
+                    return;
+                }
+                chunk = new Chunk();
+            }
+        }
+        send(userId, chunk, response);
+    }
+
+    private void add(Chunk chunk, int lineNumber, String line) throws IOException {
+        ItemDto item;
+        try {
+            item = objectMapper.readValue(line, ItemDto.class);
+        } catch (JsonProcessingException e) {
+            chunk.results.add(BulkItemResult.failed(lineNumber, "Malformed JSON: " + e.getOriginalMessage()));
+            return;
+        }
+        List<ConstraintViolation<ItemDto>> violations = new ArrayList<>(validator.validate(item));
+        if (!violations.isEmpty()) {
+            chunk.results.add(BulkItemResult.failed(lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "))));
+            return;
+        }
+        item.setId(null);
+        chunk.ndjson.write(objectMapper.writeValueAsBytes(item));
+        chunk.ndjson.write('\n');
+        chunk.lines.add(lineNumber);
+    }
+
+    /**
+     * Returns {@code false} if the server rejected the first chunk: its response is then passed through
+     * as is, e.g. 404 for an unknown owner, and the rest of the upload is not read.
+     */
+    private boolean send(long userId, Chunk chunk, HttpServletResponse response) throws IOException {
+        if (!chunk.lines.isEmpty()) {
+            ResponseEntity<Object> serverResponse = itemClient.createItems(userId, chunk.ndjson.toByteArray()).join();
+            byte[] body = serverResponse.getBody() instanceof byte[] bytes ? bytes : new byte[0];
+            if (!serverResponse.getStatusCode().is2xxSuccessful()) {
+                if (!response.isCommitted()) {
+                    response.setStatus(serverResponse.getStatusCode().value());
+                    MediaType contentType = serverResponse.getHeaders().getContentType();
+                    if (contentType != null) {
+                        response.setContentType(contentType.toString());
+                    }
+                    response.getOutputStream().write(body);
+                    return false;
+                }
+                String error = errorOf(body, serverResponse.getStatusCode().value());
+                chunk.lines.forEach(line -> chunk.results.add(BulkItemResult.failed(line, error)));
+            } else {
+                // The server numbers the lines of the chunk it received from 1
+                for (String resultLine : new String(body, StandardCharsets.UTF_8).split("\n")) {
+                    if (resultLine.isBlank()) {
+                        continue;
+                    }
+                    BulkItemResult result = objectMapper.readValue(resultLine, BulkItemResult.class);
+                    result.setLine(chunk.lines.get(result.getLine() - 1));
+                    chunk.results.add(result);
+                }
+            }
+        }
+
+        chunk.results.sort(Comparator.comparingInt(BulkItemResult::getLine));
+        if (!response.isCommitted()) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        }
+        OutputStream out = response.getOutputStream();
+        for (BulkItemResult result : chunk.results) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+        return true;
+    }
+
+    private String errorOf(byte[] body, int status) {
+        try {
+            JsonNode node = objectMapper.readTree(body);
+            JsonNode error = node == null ? null : node.get("error");
+            if (error != null && error.isTextual()) {
+                return error.asText();
+            }
+        } catch (IOException e) {
+            // not an ErrorResponse, fall back to the status
+        }
+        return "Server responded with " + status;
+    }
+
+    private static final class Chunk {
+        final List<BulkItemResult> results = new ArrayList<>();
+        final List<Integer> lines = new ArrayList<>();
+        final ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        int size() {
+            return results.size() + lines.size();
+        }
+    }
+}
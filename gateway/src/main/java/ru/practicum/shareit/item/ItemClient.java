@@ -1,44 +1,56 @@
 package ru.practicum.shareit.item;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerExchange;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
+    private final ItemResponseCache cache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, ServerExchange exchange,
+            ItemResponseCache cache) {
+        super(serverUrl + API_PREFIX, exchange);
+        this.cache = cache;
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> createItem(long userId, ItemDto itemDto) {
+        return post("", userId, itemDto)
+                .whenComplete((response, error) -> cache.evictSearches());
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> createItems(long userId, byte[] ndjson) {
+        return post("/bulk", userId, MediaType.APPLICATION_NDJSON, ndjson)
+                .whenComplete((response, error) -> cache.evictSearches());
     }
 
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+    public CompletableFuture<ResponseEntity<Object>> updateItem(long userId, long itemId, ItemDto itemDto) {
+        return patch("/" + itemId, userId, itemDto)
+                .whenComplete((response, error) -> {
+                    cache.evictItem(itemId);
+                    cache.evictSearches();
+                });
     }
 
-    public ResponseEntity<Object> getItemById(long itemId, long userId) {
-        return get("/" + itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getItemById(long itemId, long userId, String ifNoneMatch) {
+        return cache.getItem(itemId, userId, ifNoneMatch, eTags -> getIfNoneMatch("/" + itemId, userId, eTags));
     }
 
-    public ResponseEntity<Object> getItemsByOwner(long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getItemsByOwner(long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -46,16 +58,33 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> searchItems(String text, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> searchItems(String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return cache.search(text, from, size,
+                () -> get("/search?text={text}&from={from}&size={size}", null, parameters));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> addComment(long userId, long itemId, CommentDto commentDto) {
+        return post("/" + itemId + "/comment", userId, commentDto)
+                .whenComplete((response, error) -> cache.evictItem(itemId));
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("itemId", itemId);
+        UriComponentsBuilder path = UriComponentsBuilder.fromPath("/{itemId}/availability");
+        if (from != null) {
+            parameters.put("from", from);
+            path.queryParam("from", "{from}");
+        }
+        if (to != null) {
+            parameters.put("to", to);
+            path.queryParam("to", "{to}");
+        }
+        return get(path.build().toUriString(), null, parameters);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,12 @@
 package ru.practicum.shareit.item;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,10 +19,12 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.ErrorResponse;
 
 @Controller
 @RequestMapping("/items")
@@ -23,47 +32,67 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemClient itemClient;
+    private final ItemBulkImport itemBulkImport;
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                           @Valid @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> createItem(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                              @Valid @RequestBody ItemDto itemDto) {
         return itemClient.createItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createItems(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                            InputStream body,
+                            HttpServletResponse response) throws IOException {
+        itemBulkImport.importItems(userId, body, response);
+    }
+
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                           @PathVariable @Positive Long itemId,
-                                           @RequestBody ItemDto itemDto) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                              @PathVariable @Positive Long itemId,
+                                                              @RequestBody ItemDto itemDto) {
         return itemClient.updateItem(userId, itemId, itemDto);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable @Positive Long itemId,
-                                            @RequestHeader("X-Sharer-User-Id") @Positive Long userId) {
-        return itemClient.getItemById(itemId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getItemById(@PathVariable @Positive Long itemId,
+                                                               @RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                               @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemClient.getItemById(itemId, userId, ifNoneMatch);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                                @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                                @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                                   @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                                   @Positive @RequestParam(defaultValue = "10") Integer size) {
         return itemClient.getItemsByOwner(userId, from, size);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text,
-                                            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
-                                            @Positive @RequestParam(defaultValue = "10") Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> searchItems(@RequestParam String text,
+                                                               @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                               @Positive @RequestParam(defaultValue = "10") Integer size) {
         if (text == null || text.trim().isEmpty()) {
-            return ResponseEntity.ok(java.util.Collections.emptyList());
+            return CompletableFuture.completedFuture(ResponseEntity.ok(java.util.Collections.emptyList()));
         }
         return itemClient.searchItems(text, from, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
-                                           @PathVariable @Positive Long itemId,
-                                           @Valid @RequestBody CommentDto commentDto) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(@RequestHeader("X-Sharer-User-Id") @Positive Long userId,
+                                                              @PathVariable @Positive Long itemId,
+                                                              @Valid @RequestBody CommentDto commentDto) {
         return itemClient.addComment(userId, itemId, commentDto);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{itemId}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getAvailability(@PathVariable @Positive Long itemId,
+                                                                   @RequestParam(required = false) LocalDateTime from,
+                                                                   @RequestParam(required = false) LocalDateTime to) {
+        if (from != null && to != null && !to.isAfter(from)) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(new ErrorResponse("End of period must be after its start")));
+        }
+        return itemClient.getAvailability(itemId, from, to);
+    }
+}
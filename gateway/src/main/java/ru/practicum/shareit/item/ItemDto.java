@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 @Data
 @AllArgsConstructor
@@ -14,9 +15,11 @@ public class ItemDto {
     private Long id;
 
     @NotBlank(message = "Name cannot be blank")
+    @Size(max = 255, message = "Name cannot be longer than 255 characters")
     private String name;
 
     @NotBlank(message = "Description cannot be blank")
+    @Size(max = 512, message = "Description cannot be longer than 512 characters")
     private String description;
 
     @NotNull(message = "Available status cannot be null")
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.item;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Successful responses of {@code GET /items/{itemId}} and {@code GET /items/search}. Items are cached per
+ * requesting user, because the owner also sees the last and next booking. Writes that pass through this gateway
+ * evict the affected entries, changes made elsewhere become visible after {@code shareit.item-cache.ttl}.
+ */
+@Component
+public class ItemResponseCache {
+    private final AsyncCache<ItemKey, ResponseEntity<Object>> items;
+    private final AsyncCache<SearchKey, ResponseEntity<Object>> searches;
+    private final boolean enabled;
+
+    public ItemResponseCache(MeterRegistry meterRegistry,
+            @Value("${shareit.item-cache.enabled:true}") boolean enabled,
+            @Value("${shareit.item-cache.maximum-size:10000}") long maximumSize,
+            @Value("${shareit.item-cache.ttl:30s}") Duration ttl) {
+        this.enabled = enabled;
+        this.items = build(maximumSize, ttl);
+        this.searches = build(maximumSize, ttl);
+        CaffeineCacheMetrics.monitor(meterRegistry, items, "items");
+        CaffeineCacheMetrics.monitor(meterRegistry, searches, "item-search");
+    }
+
+    /**
+     * The loader takes the {@code If-None-Match} tags to send. The cache always loads full responses, which may be
+     * shared by several callers, and answers conditional requests from the cached ETag.
+     */
+    CompletableFuture<ResponseEntity<Object>> getItem(long itemId, long userId, @Nullable String ifNoneMatch,
+            Function<String, CompletableFuture<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.apply(ifNoneMatch);
+        }
+        return get(items, new ItemKey(itemId, userId), () -> loader.apply(null))
+                .thenApply(response -> notModified(response, ifNoneMatch));
+    }
+
+    CompletableFuture<ResponseEntity<Object>> search(String text, int from, int size,
+            Supplier<CompletableFuture<ResponseEntity<Object>>> loader) {
+        return get(searches, new SearchKey(text, from, size), loader);
+    }
+
+    /**
+     * The item or its comments changed, which every user sees.
+     */
+    public void evictItem(long itemId) {
+        evict(items, key -> key.itemId() == itemId);
+    }
+
+    /**
+     * A booking of one of the owner's items was approved or rejected. Only approved bookings are shown, and only
+     * to the owner. Which item is not known without parsing the response, so all items cached for the owner go.
+     */
+    public void evictOwner(long ownerId) {
+        evict(items, key -> key.userId() == ownerId);
+    }
+
+    /**
+     * A user was renamed or deleted. Comment author names can be in any item, so all items go.
+     */
+    public void evictItems() {
+        items.synchronous().invalidateAll();
+    }
+
+    public void evictSearches() {
+        searches.synchronous().invalidateAll();
+    }
+
+    /**
+     * Concurrent misses share one load. The load runs outside the cache's map lock, and an eviction while it
+     * is in flight drops it, so a response loaded before a write is not cached after it. Error responses are
+     * not cached.
+     */
+    private <K> CompletableFuture<ResponseEntity<Object>> get(AsyncCache<K, ResponseEntity<Object>> cache, K key,
+            Supplier<CompletableFuture<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        CompletableFuture<ResponseEntity<Object>> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+        cached = cache.asMap().putIfAbsent(key, response);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            loader.get().whenComplete((entity, error) -> {
+                if (error != null) {
+                    response.completeExceptionally(error);
+                    return;
+                }
+                if (!entity.getStatusCode().is2xxSuccessful()) {
+                    cache.asMap().remove(key, response);
+                }
+                response.complete(entity);
+            });
+        } catch (RuntimeException e) {
+            response.completeExceptionally(e);
+        }
+        return response;
+    }
+
+    private static ResponseEntity<Object> notModified(ResponseEntity<Object> response, @Nullable String ifNoneMatch) {
+        String eTag = response.getHeaders().getETag();
+        if (ifNoneMatch == null || eTag == null || !response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        HttpHeaders conditions = new HttpHeaders();
+        conditions.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        boolean matches = conditions.getIfNoneMatch().stream()
+                .anyMatch(candidate -> candidate.equals("*") || opaqueTag(candidate).equals(opaqueTag(eTag)));
+        return matches ? ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build() : response;
+    }
+
+    // If-None-Match uses weak comparison
+    private static String opaqueTag(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    private static <K> void evict(AsyncCache<K, ResponseEntity<Object>> cache, Predicate<K> keys) {
+        cache.asMap().keySet().removeIf(keys);
+    }
+
+    private static <K> AsyncCache<K, ResponseEntity<Object>> build(long maximumSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+    }
+
+    private record ItemKey(long itemId, long userId) {
+    }
+
+    private record SearchKey(String text, int from, int size) {
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.client;
+
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+@SpringBootTest(properties = "shareit-server.client=async")
+class HttpClientConfigTest {
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void shouldKeepBootTaskExecutorInAsyncMode() {
+        assertInstanceOf(HttpClientServerExchange.class, context.getBean(ServerExchange.class));
+        assertTrue(context.containsBean("applicationTaskExecutor"));
+    }
+}
@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class HttpClientServerExchangeTest {
+    private static final Duration RESPONSE_TIMEOUT = Duration.ofMillis(500);
+
+    private final CountDownLatch releaseSlow = new CountDownLatch(1);
+    private ExecutorService serverThreads;
+    private HttpServer server;
+    private HttpClientServerExchange exchange;
+
+    private volatile String receivedMethod;
+    private volatile Headers receivedHeaders;
+    private volatile byte[] receivedBody;
+    private volatile int responseStatus = 200;
+    private volatile String responseBody = "{}";
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverThreads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/", this::respond);
+        server.createContext("/slow", http -> {
+            try {
+                releaseSlow.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(http);
+        });
+        server.start();
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        exchange = new HttpClientServerExchange(client, new ObjectMapper(), RESPONSE_TIMEOUT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseSlow.countDown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void shouldForwardHeadersAndSerializeBody() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("X-Sharer-User-Id", "7");
+
+        ResponseEntity<byte[]> response = exchange.exchange(HttpMethod.POST, uri("/items"), headers,
+                Map.of("name", "Drill")).join();
+
+        assertEquals("POST", receivedMethod);
+        assertEquals("7", receivedHeaders.getFirst("X-Sharer-User-Id"));
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, receivedHeaders.getFirst("Content-Type"));
+        assertEquals("{\"name\":\"Drill\"}", new String(receivedBody, StandardCharsets.UTF_8));
+
+        assertEquals(200, response.getStatusCode().value());
+        assertEquals("\"3-1\"", response.getHeaders().getETag());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertArrayEquals("{}".getBytes(StandardCharsets.UTF_8), response.getBody());
+    }
+
+    @Test
+    void shouldSendByteBodyUnchanged() {
+        byte[] body = "{\"name\":\"Saw\"}\n{\"name\":\"Tent\"}\n".getBytes(StandardCharsets.UTF_8);
+
+        exchange.exchange(HttpMethod.POST, uri("/items/bulk"), new HttpHeaders(), body).join();
+
+        assertArrayEquals(body, receivedBody);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {400, 403, 404, 409, 500})
+    void shouldPassErrorStatusAndBodyThrough(int status) {
+        responseStatus = status;
+        responseBody = "{\"error\":\"failed with " + status + "\"}";
+
+        ResponseEntity<byte[]> response = exchange.exchange(HttpMethod.GET, uri("/items/1"), new HttpHeaders(),
+                null).join();
+
+        assertEquals("GET", receivedMethod);
+        assertEquals(status, response.getStatusCode().value());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals(responseBody, new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldOpenErrorResponseAsStream() throws IOException {
+        responseStatus = 404;
+        responseBody = "{\"error\":\"User not found\"}";
+
+        ResponseEntity<InputStream> response = exchange.open(uri("/bookings/owner/export"), new HttpHeaders()).join();
+
+        assertEquals(404, response.getStatusCode().value());
+        try (InputStream body = response.getBody()) {
+            assertEquals(responseBody, new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void shouldCompleteExceptionallyOnResponseTimeout() {
+        CompletionException error = assertThrows(CompletionException.class,
+                () -> exchange.exchange(HttpMethod.GET, uri("/slow"), new HttpHeaders(), null).join());
+
+        assertInstanceOf(HttpTimeoutException.class, error.getCause());
+    }
+
+    private void respond(HttpExchange http) throws IOException {
+        receivedMethod = http.getRequestMethod();
+        receivedHeaders = http.getRequestHeaders();
+        try (InputStream body = http.getRequestBody()) {
+            receivedBody = body.readAllBytes();
+        }
+
+        byte[] bytes = responseBody.getBytes(StandardCharsets.UTF_8);
+        http.getResponseHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+        http.getResponseHeaders().set("ETag", "\"3-1\"");
+        http.sendResponseHeaders(responseStatus, bytes.length);
+        try (OutputStream out = http.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+    }
+}
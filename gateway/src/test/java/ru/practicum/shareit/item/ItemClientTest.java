@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import ru.practicum.shareit.client.ServerExchange;
+
+@ExtendWith(MockitoExtension.class)
+class ItemClientTest {
+    private static final LocalDateTime FROM = LocalDateTime.of(2030, 1, 1, 10, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2030, 1, 2, 10, 0, 0);
+
+    @Mock
+    private ServerExchange exchange;
+
+    @Mock
+    private ItemResponseCache cache;
+
+    private ItemClient itemClient;
+
+    @BeforeEach
+    void setUp() {
+        itemClient = new ItemClient("http://server", exchange, cache);
+        when(exchange.exchange(eq(HttpMethod.GET), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(ResponseEntity.ok().build()));
+    }
+
+    @Test
+    void shouldRequestAvailabilityWithBothBounds() {
+        assertEquals("/items/1/availability?from=2030-01-01T10:00&to=2030-01-02T10:00",
+                availabilityUri(FROM, TO));
+    }
+
+    @Test
+    void shouldRequestAvailabilityWithoutDanglingSeparators() {
+        assertEquals("/items/1/availability", availabilityUri(null, null));
+        assertEquals("/items/1/availability?from=2030-01-01T10:00", availabilityUri(FROM, null));
+        assertEquals("/items/1/availability?to=2030-01-02T10:00", availabilityUri(null, TO));
+    }
+
+    private String availabilityUri(LocalDateTime from, LocalDateTime to) {
+        itemClient.getAvailability(1L, from, to).join();
+        ArgumentCaptor<URI> uri = ArgumentCaptor.forClass(URI.class);
+        verify(exchange, atLeastOnce()).exchange(eq(HttpMethod.GET), uri.capture(), any(), any());
+        return uri.getValue().getPath() + (uri.getValue().getQuery() == null ? ""
+                : "?" + uri.getValue().getQuery());
+    }
+}
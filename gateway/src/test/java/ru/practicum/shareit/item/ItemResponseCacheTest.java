@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ItemResponseCacheTest {
+    private ItemResponseCache cache;
+    private List<CompletableFuture<ResponseEntity<Object>>> loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemResponseCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1));
+        loads = new ArrayList<>();
+    }
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentMisses() {
+        CompletableFuture<ResponseEntity<Object>> first = getItem(1L, 1L, null);
+        CompletableFuture<ResponseEntity<Object>> second = getItem(1L, 1L, null);
+
+        loads.get(0).complete(ok("v1", "\"0-0\""));
+
+        assertEquals(1, loads.size());
+        assertEquals("v1", first.join().getBody());
+        assertEquals("v1", second.join().getBody());
+    }
+
+    @Test
+    void shouldNotCacheResponseLoadedWhileItemWasEvicted() {
+        CompletableFuture<ResponseEntity<Object>> stale = getItem(1L, 1L, null);
+        cache.evictItem(1L);
+        loads.get(0).complete(ok("v1", "\"0-0\""));
+        assertEquals("v1", stale.join().getBody());
+
+        CompletableFuture<ResponseEntity<Object>> fresh = getItem(1L, 1L, null);
+        assertEquals(2, loads.size());
+        loads.get(1).complete(ok("v2", "\"1-0\""));
+        assertEquals("v2", fresh.join().getBody());
+        assertEquals("v2", getItem(1L, 1L, null).join().getBody());
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void shouldNotCacheErrorResponses() {
+        CompletableFuture<ResponseEntity<Object>> notFound = getItem(1L, 1L, null);
+        loads.get(0).complete(ResponseEntity.status(HttpStatus.NOT_FOUND).body("{\"error\":\"Item not found\"}"));
+        assertEquals(HttpStatus.NOT_FOUND, notFound.join().getStatusCode());
+
+        getItem(1L, 1L, null);
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void shouldNotCacheFailedLoads() {
+        CompletableFuture<ResponseEntity<Object>> failed = getItem(1L, 1L, null);
+        loads.get(0).completeExceptionally(new IllegalStateException("Connection refused"));
+        assertTrue(failed.isCompletedExceptionally());
+
+        getItem(1L, 1L, null);
+        assertEquals(2, loads.size());
+    }
+
+    @Test
+    void shouldKeepResponsesPerUser() {
+        CompletableFuture<ResponseEntity<Object>> owner = getItem(1L, 1L, null);
+        loads.get(0).complete(ok("with bookings", "\"0-0\""));
+        CompletableFuture<ResponseEntity<Object>> other = getItem(1L, 2L, null);
+        assertEquals(2, loads.size());
+        loads.get(1).complete(ok("without bookings", "\"0-0\""));
+
+        assertEquals("with bookings", owner.join().getBody());
+        assertEquals("without bookings", other.join().getBody());
+        assertEquals("with bookings", getItem(1L, 1L, null).join().getBody());
+        assertEquals(2, loads.size());
+
+        cache.evictOwner(1L);
+        getItem(1L, 1L, null);
+        assertEquals("without bookings", getItem(1L, 2L, null).join().getBody());
+        assertEquals(3, loads.size());
+    }
+
+    @Test
+    void shouldDropAllItemsWhenUserChanges() {
+        getItem(1L, 1L, null);
+        getItem(2L, 2L, null);
+        loads.forEach(load -> load.complete(ok("by Booker", "\"0-1-0\"")));
+
+        cache.evictItems();
+        getItem(1L, 1L, null);
+        getItem(2L, 2L, null);
+        assertEquals(4, loads.size());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedFromCachedETag() {
+        getItem(1L, 1L, null);
+        loads.get(0).complete(ok("v1", "\"3-0\""));
+
+        ResponseEntity<Object> notModified = getItem(1L, 1L, "\"2-0\", W/\"3-0\"").join();
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals("\"3-0\"", notModified.getHeaders().getETag());
+        assertNull(notModified.getBody());
+
+        ResponseEntity<Object> changed = getItem(1L, 1L, "\"2-0\"").join();
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertEquals("v1", changed.getBody());
+        assertEquals(1, loads.size());
+    }
+
+    @Test
+    void shouldPassConditionalRequestsToServerWhenDisabled() {
+        cache = new ItemResponseCache(new SimpleMeterRegistry(), false, 100, Duration.ofMinutes(1));
+        List<String> sentTags = new ArrayList<>();
+        CompletableFuture<ResponseEntity<Object>> response = CompletableFuture.completedFuture(
+                ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        assertSame(response, cache.getItem(1L, 1L, "\"3-0\"", eTags -> {
+            sentTags.add(eTags);
+            return response;
+        }));
+        assertEquals(List.of("\"3-0\""), sentTags);
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> getItem(long itemId, long userId, String ifNoneMatch) {
+        return cache.getItem(itemId, userId, ifNoneMatch, eTags -> {
+            CompletableFuture<ResponseEntity<Object>> load = new CompletableFuture<>();
+            loads.add(load);
+            return load;
+        });
+    }
+
+    private static ResponseEntity<Object> ok(String body, String eTag) {
+        return ResponseEntity.ok().eTag(eTag).body(body);
+    }
+}
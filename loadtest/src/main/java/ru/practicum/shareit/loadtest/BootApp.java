@@ -0,0 +1,94 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Starts a Spring Boot executable jar inside the current JVM. The jar is unpacked to a temporary directory
+ * and its classes and libraries get a class loader of their own, so applications with clashing class names
+ * can run side by side.
+ */
+final class BootApp {
+    private static final String CLASSES = "BOOT-INF/classes/";
+    private static final String LIB = "BOOT-INF/lib/";
+    private static final String TOMCAT_URL_HANDLERS = "org.apache.catalina.webresources.TomcatURLStreamHandlerFactory";
+
+    private BootApp() {
+    }
+
+    static void start(Path jar, String... args) throws Exception {
+        Path dir = Files.createTempDirectory("shareit-loadtest-");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(dir)));
+        List<URL> classpath = new ArrayList<>();
+
+        String mainClass;
+        try (JarFile jarFile = new JarFile(jar.toFile())) {
+            mainClass = jarFile.getManifest().getMainAttributes().getValue("Start-Class");
+            if (mainClass == null) {
+                throw new IllegalArgumentException(jar + " is not a Spring Boot executable jar");
+            }
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (entry.isDirectory() || !entry.getName().startsWith("BOOT-INF/")) {
+                    continue;
+                }
+                Path target = dir.resolve(entry.getName());
+                copy(jarFile, entry, target);
+                if (entry.getName().startsWith(LIB)) {
+                    classpath.add(target.toUri().toURL());
+                }
+            }
+        }
+        classpath.add(0, dir.resolve(CLASSES).toUri().toURL());
+
+        ClassLoader classLoader = new URLClassLoader(jar.getFileName().toString(), classpath.toArray(URL[]::new),
+                ClassLoader.getPlatformClassLoader());
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            disableTomcatUrlHandlers(classLoader);
+            Method main = classLoader.loadClass(mainClass).getMethod("main", String[].class);
+            main.invoke(null, (Object) args);
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+    }
+
+    // Each embedded Tomcat tries to install a JVM-wide URL stream handler factory, which only the first one may do
+    private static void disableTomcatUrlHandlers(ClassLoader classLoader) throws ReflectiveOperationException {
+        try {
+            classLoader.loadClass(TOMCAT_URL_HANDLERS).getMethod("disable").invoke(null);
+        } catch (ClassNotFoundException e) {
+            // not a Tomcat application
+        }
+    }
+
+    private static void delete(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Could not delete " + dir + ": " + e.getMessage());
+        }
+    }
+
+    private static void copy(JarFile jarFile, JarEntry entry, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try (InputStream in = jarFile.getInputStream(entry)) {
+            Files.copy(in, target);
+        }
+    }
+}
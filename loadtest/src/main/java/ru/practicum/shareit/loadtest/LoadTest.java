@@ -0,0 +1,333 @@
+package ru.practicum.shareit.loadtest;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts server (on in-memory H2) and gateway in this JVM, seeds users, items and bookings through the gateway
+ * and then sends a weighted mix of requests at a fixed arrival rate. Latency is measured from the moment a
+ * request was due, so a stalled system is not hidden by the load generator slowing down with it.
+ * Threads are counted only while measuring: the peak of the gateway's Tomcat worker threads, sampled by name,
+ * and the peak of all platform threads of the JVM, which also run the server and the load generator.
+ *
+ * <p>Options are passed as {@code name=value}: {@code rate} (requests per second), {@code warmup} and
+ * {@code duration} (seconds), {@code users}, {@code items} (per user), {@code bookings} (per item),
+ * {@code virtual} (handle requests of both apps on virtual threads), {@code client} (blocking or async calls
+ * from gateway to server) and {@code apps} (directory with shareit-server.jar and shareit-gateway.jar).
+ */
+public final class LoadTest {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final String[] WORDS = {"drill", "saw", "ladder", "tent", "bike", "camera", "kayak", "tripod"};
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Random random = new Random(42);
+    private final String baseUrl;
+    private final String gatewayThreadPrefix;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final List<Long> users = new ArrayList<>();
+    private final List<Long> items = new ArrayList<>();
+    private final Map<Long, Long> owners = new HashMap<>();
+    private int peakInFlight;
+    private volatile int peakGatewayThreads;
+
+    private LoadTest(int gatewayPort) {
+        this.baseUrl = "http://localhost:" + gatewayPort;
+        this.gatewayThreadPrefix = "http-nio-" + gatewayPort + "-exec-";
+    }
+
+    enum Endpoint {
+        SEARCH("GET /items/search", 40),
+        OWNER_BOOKINGS("GET /bookings/owner", 30),
+        ITEM("GET /items/{id}", 20),
+        BOOK("POST /bookings", 10);
+
+        private final String title;
+        private final int weight;
+
+        Endpoint(String title, int weight) {
+            this.title = title;
+            this.weight = weight;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int userCount = Integer.parseInt(options.getOrDefault("users", "100"));
+        int itemsPerUser = Integer.parseInt(options.getOrDefault("items", "10"));
+        int bookingsPerItem = Integer.parseInt(options.getOrDefault("bookings", "3"));
+        boolean virtual = Boolean.parseBoolean(options.getOrDefault("virtual", "false"));
+        String gatewayClient = options.getOrDefault("client", "blocking");
+        Path apps = Path.of(options.getOrDefault("apps", "loadtest/target/apps"));
+
+        int serverPort = freePort();
+        int gatewayPort = freePort();
+        BootApp.start(apps.resolve("shareit-server.jar"),
+                "--server.port=" + serverPort,
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.username=test",
+                "--spring.datasource.password=test",
+                "--spring.sql.init.schema-locations=classpath:schema.sql",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--logging.level.org.springframework.transaction=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN");
+        BootApp.start(apps.resolve("shareit-gateway.jar"),
+                "--server.port=" + gatewayPort,
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--shareit-server.url=http://localhost:" + serverPort,
+                "--shareit-server.client=" + gatewayClient,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.web.client.RestTemplate=WARN");
+
+        LoadTest loadTest = new LoadTest(gatewayPort);
+        loadTest.seed(userCount, itemsPerUser, bookingsPerItem);
+        Map<Endpoint, LatencyStats> stats = loadTest.run(rate, warmup, duration);
+        report(stats, rate, duration, (virtual ? "virtual" : "platform") + " threads, " + gatewayClient + " client",
+                loadTest.peakInFlight, loadTest.peakGatewayThreads, loadTest.threads.getPeakThreadCount());
+        System.exit(0);
+    }
+
+    private void seed(int userCount, int itemsPerUser, int bookingsPerItem) throws IOException, InterruptedException {
+        for (int i = 0; i < userCount; i++) {
+            users.add(create("/users", null,
+                    "{\"name\":\"user " + i + "\",\"email\":\"user" + i + "@loadtest.ru\"}"));
+        }
+        for (Long owner : users) {
+            for (int i = 0; i < itemsPerUser; i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                Long item = create("/items", owner, "{\"name\":\"" + word + " " + items.size()
+                        + "\",\"description\":\"a " + word + " to share\",\"available\":true}");
+                items.add(item);
+                owners.put(item, owner);
+            }
+        }
+        for (Long item : items) {
+            for (int i = 0; i < bookingsPerItem; i++) {
+                Long booking = create("/bookings", otherUser(owners.get(item)), bookingJson(item));
+                if (random.nextBoolean()) {
+                    send(HttpRequest.newBuilder(uri("/bookings/" + booking + "?approved=true"))
+                            .header(USER_HEADER, String.valueOf(owners.get(item)))
+                            .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                            .build());
+                }
+            }
+        }
+        System.out.printf("Seeded %d users, %d items, %d bookings%n", users.size(), items.size(),
+                items.size() * bookingsPerItem);
+    }
+
+    private Map<Endpoint, LatencyStats> run(int rate, int warmup, int duration) throws InterruptedException {
+        Map<Endpoint, LatencyStats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new LatencyStats());
+        }
+        AtomicInteger inFlight = new AtomicInteger();
+
+        long interval = 1_000_000_000L / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup * 1_000_000_000L;
+        long end = measureFrom + duration * 1_000_000_000L;
+        System.out.printf("Warming up for %d s, then measuring %d s at %d requests/s%n", warmup, duration, rate);
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.schedule(threads::resetPeakThreadCount, measureFrom - System.nanoTime(), TimeUnit.NANOSECONDS);
+        sampler.scheduleAtFixedRate(this::sampleGatewayThreads, measureFrom - System.nanoTime(),
+                100_000_000L, TimeUnit.NANOSECONDS);
+
+        for (long i = 0; ; i++) {
+            long due = start + i * interval;
+            if (due >= end) {
+                break;
+            }
+            LockSupport.parkNanos(due - System.nanoTime());
+
+            Endpoint endpoint = pick();
+            HttpRequest request = request(endpoint);
+            int current = inFlight.incrementAndGet();
+            if (due >= measureFrom) {
+                peakInFlight = Math.max(peakInFlight, current);
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (due >= measureFrom) {
+                            stats.get(endpoint).record((System.nanoTime() - due) / 1_000,
+                                    error != null || response.statusCode() >= 400);
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        sampler.shutdownNow();
+        sampler.awaitTermination(5, TimeUnit.SECONDS);
+        return stats;
+    }
+
+    /**
+     * Counts the live platform threads of the gateway's Tomcat pool. Virtual threads are not visible here,
+     * so with {@code virtual=true} the count stays at zero.
+     */
+    private void sampleGatewayThreads() {
+        int count = 0;
+        for (ThreadInfo info : threads.getThreadInfo(threads.getAllThreadIds(), 0)) {
+            if (info != null && info.getThreadName().startsWith(gatewayThreadPrefix)) {
+                count++;
+            }
+        }
+        peakGatewayThreads = Math.max(peakGatewayThreads, count);
+    }
+
+    private Endpoint pick() {
+        int total = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            total += endpoint.weight;
+        }
+        int value = random.nextInt(total);
+        for (Endpoint endpoint : Endpoint.values()) {
+            value -= endpoint.weight;
+            if (value < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private HttpRequest request(Endpoint endpoint) {
+        return switch (endpoint) {
+            case SEARCH -> HttpRequest.newBuilder(uri("/items/search?text=" + WORDS[random.nextInt(WORDS.length)]))
+                    .GET()
+                    .build();
+            case OWNER_BOOKINGS -> HttpRequest.newBuilder(uri("/bookings/owner?state=ALL&from=0&size=10"))
+                    .header(USER_HEADER, String.valueOf(randomOf(users)))
+                    .GET()
+                    .build();
+            case ITEM -> HttpRequest.newBuilder(uri("/items/" + randomOf(items)))
+                    .header(USER_HEADER, String.valueOf(randomOf(users)))
+                    .GET()
+                    .build();
+            case BOOK -> {
+                Long item = randomOf(items);
+                yield post("/bookings", otherUser(owners.get(item)), bookingJson(item));
+            }
+        };
+    }
+
+    private Long create(String path, Long userId, String json) throws IOException, InterruptedException {
+        HttpResponse<String> response = send(post(path, userId, json));
+        Matcher matcher = ID.matcher(response.body());
+        if (response.statusCode() >= 400 || !matcher.find()) {
+            throw new IllegalStateException("POST " + path + " failed: " + response.statusCode() + " "
+                    + response.body());
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest post(String path, Long userId, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (userId != null) {
+            builder.header(USER_HEADER, String.valueOf(userId));
+        }
+        return builder.build();
+    }
+
+    private String bookingJson(Long item) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(365)).truncatedTo(ChronoUnit.SECONDS);
+        return "{\"itemId\":" + item + ",\"start\":\"" + start + "\",\"end\":\"" + start.plusHours(2) + "\"}";
+    }
+
+    private Long otherUser(Long owner) {
+        Long user;
+        do {
+            user = randomOf(users);
+        } while (user.equals(owner));
+        return user;
+    }
+
+    private <T> T randomOf(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static void report(Map<Endpoint, LatencyStats> stats, int rate, int duration, String mode,
+            int peakInFlight, int peakGatewayThreads, int peakJvmThreads) {
+        System.out.printf("%nTarget rate %d requests/s, measured over %d s (%s), latencies in ms%n", rate, duration,
+                mode);
+        System.out.printf("%-20s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50", "p99", "p999", "max");
+        stats.forEach((endpoint, latencies) -> {
+            LatencyStats.Summary summary = latencies.summarize(duration);
+            System.out.printf("%-20s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", endpoint.title,
+                    summary.requests(), summary.errors(), summary.throughput(), summary.p50() / 1000.0,
+                    summary.p99() / 1000.0, summary.p999() / 1000.0, summary.max() / 1000.0);
+        });
+        System.out.printf("Peak requests in flight: %d, peak gateway threads: %d, peak JVM platform threads: %d%n",
+                peakInFlight, peakGatewayThreads, peakJvmThreads);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected name=value, got " + arg);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
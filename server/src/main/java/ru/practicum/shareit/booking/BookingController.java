@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,12 +10,18 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResult;
+import ru.practicum.shareit.booking.export.BookingExporter;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -23,6 +30,7 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
 
     @PostMapping
     public BookingResponseDto createBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -30,6 +38,12 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingDto);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingStatusResult> updateBookingStatuses(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestBody BookingStatusBatchDto batch) {
+        return bookingService.updateBookingStatuses(userId, batch.getIds(), batch.getApproved());
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto updateBookingStatus(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @PathVariable Long bookingId,
@@ -38,24 +52,57 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public BookingResponseDto getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @PathVariable Long bookingId) {
-        return bookingService.getBookingById(userId, bookingId);
+    public ResponseEntity<BookingResponseDto> getBookingById(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @PathVariable Long bookingId,
+                                                             WebRequest request) {
+        String eTag = bookingService.getBookingETag(userId, bookingId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(bookingService.getBookingById(userId, bookingId));
     }
 
     @GetMapping
-    public List<BookingResponseDto> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ResponseEntity<List<BookingResponseDto>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                    @RequestParam(defaultValue = "ALL") String state,
                                                    @RequestParam(defaultValue = "0") int from,
-                                                   @RequestParam(defaultValue = "10") int size) {
-        return bookingService.getBookingsByUser(userId, state, from, size);
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestParam(required = false) String after) {
+        if (after == null) {
+            return ResponseEntity.ok(bookingService.getBookingsByUser(userId, state, from, size));
+        }
+        return withNextCursor(bookingService.getBookingsByUser(userId, state, BookingCursor.decode(after), size),
+                size);
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+    public ResponseEntity<List<BookingResponseDto>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                     @RequestParam(defaultValue = "ALL") String state,
                                                     @RequestParam(defaultValue = "0") int from,
-                                                    @RequestParam(defaultValue = "10") int size) {
-        return bookingService.getBookingsByOwner(userId, state, from, size);
+                                                    @RequestParam(defaultValue = "10") int size,
+                                                    @RequestParam(required = false) String after) {
+        if (after == null) {
+            return ResponseEntity.ok(bookingService.getBookingsByOwner(userId, state, from, size));
+        }
+        return withNextCursor(bookingService.getBookingsByOwner(userId, state, BookingCursor.decode(after), size),
+                size);
+    }
+
+    @GetMapping("/owner/export")
+    public void exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                    @RequestParam(defaultValue = "ndjson") String format,
+                                    HttpServletResponse response) throws IOException {
+        bookingExporter.exportOwnerBookings(userId, format, response);
+    }
+
+    private static ResponseEntity<List<BookingResponseDto>> withNextCursor(List<BookingResponseDto> bookings,
+                                                                           int size) {
+        if (bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+        BookingResponseDto last = bookings.get(bookings.size() - 1);
+        return ResponseEntity.ok()
+                .header(BookingCursor.NEXT_CURSOR_HEADER, new BookingCursor(last.getStart(), last.getId()).encode())
+                .body(bookings);
     }
 }
\ No newline at end of file
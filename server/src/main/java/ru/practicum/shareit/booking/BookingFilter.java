@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Predicate of a {@link BookingState} as bounds on status, start and end, so that every state of a booking
+ * list runs the same query. A bound a state does not use is left open: all statuses, {@link #MIN} or
+ * {@link #MAX}. The bounds read {@code startAfter < start <= startUntil} and {@code endFrom <= end < endBefore}.
+ */
+public record BookingFilter(Set<BookingStatus> statuses,
+        LocalDateTime startAfter, LocalDateTime startUntil,
+        LocalDateTime endFrom, LocalDateTime endBefore) {
+    public static final LocalDateTime MIN = LocalDateTime.of(1, 1, 1, 0, 0);
+    public static final LocalDateTime MAX = BookingCursor.FIRST.start();
+
+    private static final Set<BookingStatus> ALL_STATUSES = EnumSet.allOf(BookingStatus.class);
+
+    public static final BookingFilter ALL = new BookingFilter(ALL_STATUSES, MIN, MAX, MIN, MAX);
+
+    /**
+     * Unknown states are treated as ALL.
+     */
+    public static BookingFilter forState(String state, LocalDateTime now) {
+        return switch (state.toUpperCase(Locale.ROOT)) {
+            case "CURRENT" -> new BookingFilter(ALL_STATUSES, MIN, now, now, MAX);
+            case "PAST" -> new BookingFilter(ALL_STATUSES, MIN, MAX, MIN, now);
+            case "FUTURE" -> new BookingFilter(ALL_STATUSES, now, MAX, MIN, MAX);
+            case "WAITING" -> withStatus(BookingStatus.WAITING);
+            case "REJECTED" -> withStatus(BookingStatus.REJECTED);
+            default -> ALL;
+        };
+    }
+
+    private static BookingFilter withStatus(BookingStatus status) {
+        return new BookingFilter(EnumSet.of(status), MIN, MAX, MIN, MAX);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.booking;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import io.micrometer.common.annotation.ValueResolver;
+
+/**
+ * Turns the raw {@code state} request parameter into a metric tag. Unknown values are listed as ALL,
+ * which is how the booking service treats them, so the tag never gets more values than {@link BookingState}.
+ */
+public class BookingStateTagResolver implements ValueResolver {
+
+    @Override
+    public String resolve(Object parameter) {
+        String state = String.valueOf(parameter).toUpperCase(Locale.ROOT);
+        return Arrays.stream(BookingState.values())
+                .map(Enum::name)
+                .filter(state::equals)
+                .findFirst()
+                .orElse(BookingState.ALL.name());
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Body of {@code PATCH /bookings/batch}: one decision applied to every listed booking.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookingStatusBatchDto {
+    private List<Long> ids;
+    private Boolean approved;
+}
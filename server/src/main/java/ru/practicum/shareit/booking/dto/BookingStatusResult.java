@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.BookingStatus;
+
+/**
+ * Outcome of one booking of a batch status change: the new status or the reason it was left as is.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingStatusResult {
+    private Long id;
+    private BookingStatus status;
+    private String error;
+
+    public static BookingStatusResult updated(Long id, BookingStatus status) {
+        return BookingStatusResult.builder().id(id).status(status).build();
+    }
+
+    public static BookingStatusResult failed(Long id, String error) {
+        return BookingStatusResult.builder().id(id).error(error).build();
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.booking.repository.BookingRow;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+
+/**
+ * Writes the whole booking history of an owner to the response while the rows are read from a cursor,
+ * so memory use does not depend on the size of the history. Rows are projections, not entities, and the
+ * persistence context stays empty.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingExporter {
+    private static final String CSV_HEADER = "id,start,end,status,item_id,item_name,booker_id,booker_name";
+
+    private final BookingRepository bookingRepository;
+    private final UserExistenceChecker userExistenceChecker;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Checks the format and the owner before anything is written, so both still get a regular error response.
+     */
+    @Transactional(readOnly = true)
+    public void exportOwnerBookings(Long userId, String format, HttpServletResponse response) throws IOException {
+        BookingExportFormat exportFormat = BookingExportFormat.from(format);
+        userExistenceChecker.requireExists(userId);
+
+        response.setContentType(exportFormat.getMediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename("bookings." + exportFormat.getExtension())
+                .build()
+                .toString());
+        try (Stream<BookingRow> rows = bookingRepository.streamExportRowsByOwnerId(userId)) {
+            OutputStream out = response.getOutputStream();
+            if (exportFormat == BookingExportFormat.CSV) {
+                writeCsv(rows.iterator(), out);
+            } else {
+                writeNdjson(rows.iterator(), out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<BookingRow> rows, OutputStream out) throws IOException {
+        while (rows.hasNext()) {
+            out.write(objectMapper.writeValueAsBytes(rows.next()));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private static void writeCsv(Iterator<BookingRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        while (rows.hasNext()) {
+            BookingRow row = rows.next();
+            writer.write(row.id() + ","
+                    + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.start()) + ","
+                    + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.end()) + ","
+                    + row.status() + ","
+                    + row.itemId() + ","
+                    + csvField(row.itemName()) + ","
+                    + row.bookerId() + ","
+                    + csvField(row.bookerName()));
+            writer.write("\r\n");
+        }
+        writer.flush();
+    }
+
+    // RFC 4180: quote fields with separators, quotes or line breaks, doubling the quotes
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
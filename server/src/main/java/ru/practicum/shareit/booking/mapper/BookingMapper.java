@@ -4,6 +4,7 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.repository.BookingRow;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
@@ -35,4 +36,21 @@ public class BookingMapper {
                         .build())
                 .build();
     }
+
+    public static BookingResponseDto toBookingResponseDto(BookingRow row) {
+        return BookingResponseDto.builder()
+                .id(row.id())
+                .start(row.start())
+                .end(row.end())
+                .status(row.status())
+                .booker(BookingResponseDto.UserDto.builder()
+                        .id(row.bookerId())
+                        .name(row.bookerName())
+                        .build())
+                .item(BookingResponseDto.ItemDto.builder()
+                        .id(row.itemId())
+                        .name(row.itemName())
+                        .build())
+                .build();
+    }
 }
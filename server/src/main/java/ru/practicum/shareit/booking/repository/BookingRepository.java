@@ -1,74 +1,132 @@
 package ru.practicum.shareit.booking.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingFilter;
 import ru.practicum.shareit.booking.BookingStatus;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-        List<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-        List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
-
-        @Query("SELECT b FROM Booking b " +
+        /**
+         * Select clause of the list queries: one join, no entities, so nothing is loaded lazily per row
+         * and nothing is left in the persistence context to dirty-check.
+         */
+        String BOOKING_ROWS = "SELECT new ru.practicum.shareit.booking.repository.BookingRow(" +
+                        "b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) " +
+                        "FROM Booking b " +
+                        "JOIN b.item i " +
+                        "JOIN b.booker u ";
+
+        /**
+         * Rest of the list queries after the role predicate: the bounds of a {@link BookingFilter} and the keyset
+         * position, newest first. The offset lists start from {@link BookingCursor#FIRST}.
+         */
+        String FILTER_BEFORE_CURSOR = "AND b.status IN :statuses " +
+                        "AND b.start > :startAfter " +
+                        "AND b.start <= :startUntil " +
+                        "AND b.end >= :endFrom " +
+                        "AND b.end < :endBefore " +
+                        "AND (b.start, b.id) < (:start, :id) " +
+                        "ORDER BY b.start DESC, b.id DESC";
+
+        default List<BookingRow> findByBooker(Long bookerId, BookingFilter filter, BookingCursor after,
+                        Pageable pageable) {
+                return findByBookerIdBeforeCursor(bookerId, filter.statuses(), filter.startAfter(),
+                                filter.startUntil(), filter.endFrom(), filter.endBefore(), after.start(), after.id(),
+                                pageable);
+        }
+
+        default List<BookingRow> findByOwner(Long ownerId, BookingFilter filter, BookingCursor after,
+                        Pageable pageable) {
+                return findByItem_OwnerIdBeforeCursor(ownerId, filter.statuses(), filter.startAfter(),
+                                filter.startUntil(), filter.endFrom(), filter.endBefore(), after.start(), after.id(),
+                                pageable);
+        }
+
+        @Query(BOOKING_ROWS +
                         "WHERE b.booker.id = :bookerId " +
-                        "AND :now BETWEEN b.start AND b.end " +
-                        "ORDER BY b.start DESC")
-        List<Booking> findByBookerIdAndCurrentOrderByStartDesc(@Param("bookerId") Long bookerId,
-                        @Param("now") LocalDateTime now,
+                        FILTER_BEFORE_CURSOR)
+        List<BookingRow> findByBookerIdBeforeCursor(@Param("bookerId") Long bookerId,
+                        @Param("statuses") Collection<BookingStatus> statuses,
+                        @Param("startAfter") LocalDateTime startAfter,
+                        @Param("startUntil") LocalDateTime startUntil,
+                        @Param("endFrom") LocalDateTime endFrom,
+                        @Param("endBefore") LocalDateTime endBefore,
+                        @Param("start") LocalDateTime start,
+                        @Param("id") Long id,
                         Pageable pageable);
 
-        @Query("SELECT b FROM Booking b " +
-                        "WHERE b.booker.id = :bookerId " +
-                        "AND b.end < :now " +
-                        "ORDER BY b.start DESC")
-        List<Booking> findByBookerIdAndPastOrderByStartDesc(@Param("bookerId") Long bookerId,
-                        @Param("now") LocalDateTime now,
+        @Query(BOOKING_ROWS +
+                        "WHERE i.owner.id = :ownerId " +
+                        FILTER_BEFORE_CURSOR)
+        List<BookingRow> findByItem_OwnerIdBeforeCursor(@Param("ownerId") Long ownerId,
+                        @Param("statuses") Collection<BookingStatus> statuses,
+                        @Param("startAfter") LocalDateTime startAfter,
+                        @Param("startUntil") LocalDateTime startUntil,
+                        @Param("endFrom") LocalDateTime endFrom,
+                        @Param("endBefore") LocalDateTime endBefore,
+                        @Param("start") LocalDateTime start,
+                        @Param("id") Long id,
                         Pageable pageable);
 
         @Query("SELECT b FROM Booking b " +
-                        "WHERE b.booker.id = :bookerId " +
-                        "AND b.start > :now " +
-                        "ORDER BY b.start DESC")
-        List<Booking> findByBookerIdAndFutureOrderByStartDesc(@Param("bookerId") Long bookerId,
-                        @Param("now") LocalDateTime now,
-                        Pageable pageable);
-
-        List<Booking> findByItem_OwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
-
-        List<Booking> findByItem_OwnerIdAndStatusOrderByStartDesc(Long ownerId, BookingStatus status,
-                        Pageable pageable);
-
-        @Query("SELECT b FROM Booking b " +
-                        "WHERE b.item.owner.id = :ownerId " +
-                        "AND :now BETWEEN b.start AND b.end " +
-                        "ORDER BY b.start DESC")
-        List<Booking> findByItem_OwnerIdAndCurrentOrderByStartDesc(@Param("ownerId") Long ownerId,
-                        @Param("now") LocalDateTime now,
-                        Pageable pageable);
+                        "JOIN FETCH b.item " +
+                        "JOIN FETCH b.booker " +
+                        "WHERE b.id = :bookingId")
+        Optional<Booking> findWithItemAndBookerById(@Param("bookingId") Long bookingId);
+
+        @Modifying(clearAutomatically = true)
+        @Query("UPDATE Booking b " +
+                        "SET b.status = :status, b.version = b.version + 1 " +
+                        "WHERE b.id = :bookingId " +
+                        "AND b.status = 'WAITING'")
+        int updateStatusIfWaiting(@Param("bookingId") Long bookingId, @Param("status") BookingStatus status);
+
+        /**
+         * Locks the bookings (and the joined item rows) until the transaction ends, so a status seen here cannot
+         * change before the update. Rows are locked in booking id order, so two batches over the same bookings
+         * wait for each other instead of deadlocking.
+         */
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT new ru.practicum.shareit.booking.repository.BookingStatusCheck(" +
+                        "b.id, i.id, i.owner.id, b.status, b.start, b.end) " +
+                        "FROM Booking b " +
+                        "JOIN b.item i " +
+                        "WHERE b.id IN :bookingIds " +
+                        "ORDER BY b.id")
+        List<BookingStatusCheck> findStatusChecksByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+
+        @Modifying(clearAutomatically = true)
+        @Query("UPDATE Booking b " +
+                        "SET b.status = :status, b.version = b.version + 1 " +
+                        "WHERE b.id IN :bookingIds " +
+                        "AND b.status = 'WAITING'")
+        int updateStatusesIfWaiting(@Param("bookingIds") Collection<Long> bookingIds,
+                        @Param("status") BookingStatus status);
 
-        @Query("SELECT b FROM Booking b " +
-                        "WHERE b.item.owner.id = :ownerId " +
-                        "AND b.end < :now " +
-                        "ORDER BY b.start DESC")
-        List<Booking> findByItem_OwnerIdAndPastOrderByStartDesc(@Param("ownerId") Long ownerId,
-                        @Param("now") LocalDateTime now,
-                        Pageable pageable);
+        List<Booking> findByItemIdAndStatusInOrderByStartAsc(Long itemId, List<BookingStatus> statuses);
 
-        @Query("SELECT b FROM Booking b " +
-                        "WHERE b.item.owner.id = :ownerId " +
-                        "AND b.start > :now " +
-                        "ORDER BY b.start DESC")
-        List<Booking> findByItem_OwnerIdAndFutureOrderByStartDesc(@Param("ownerId") Long ownerId,
-                        @Param("now") LocalDateTime now,
-                        Pageable pageable);
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @Query(BOOKING_ROWS +
+                        "WHERE i.owner.id = :ownerId " +
+                        "ORDER BY b.start DESC, b.id DESC")
+        Stream<BookingRow> streamExportRowsByOwnerId(@Param("ownerId") Long ownerId);
 
         @Query("SELECT b FROM Booking b " +
                         "WHERE b.item.id = :itemId " +
@@ -144,4 +202,43 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
         List<Booking> findByItemIdAndStartAfterOrderByStartAscAllStatuses(@Param("itemId") Long itemId,
                         @Param("now") LocalDateTime now,
                         Pageable pageable);
+
+        @Query("SELECT b.id FROM Booking b " +
+                        "WHERE b.item.id = :itemId " +
+                        "AND b.start < :now " +
+                        "AND b.status = 'APPROVED' " +
+                        "ORDER BY b.start DESC")
+        List<Long> findLastApprovedIdByItemId(@Param("itemId") Long itemId,
+                        @Param("now") LocalDateTime now,
+                        Pageable pageable);
+
+        @Query("SELECT b.id FROM Booking b " +
+                        "WHERE b.item.id = :itemId " +
+                        "AND b.start > :now " +
+                        "AND b.status = 'APPROVED' " +
+                        "ORDER BY b.start ASC")
+        List<Long> findNextApprovedIdByItemId(@Param("itemId") Long itemId,
+                        @Param("now") LocalDateTime now,
+                        Pageable pageable);
+
+        @Query("SELECT new ru.practicum.shareit.booking.repository.BookingVersion(" +
+                        "b.version, i.version, u.version) " +
+                        "FROM Booking b JOIN b.item i JOIN b.booker u " +
+                        "WHERE b.id = :bookingId " +
+                        "AND (b.booker.id = :userId OR i.owner.id = :userId)")
+        Optional<BookingVersion> findVersionVisibleTo(@Param("bookingId") Long bookingId,
+                        @Param("userId") Long userId);
+
+        @Query(value = "SELECT t.id, t.start_date, t.end_date, t.item_id, t.booker_id, t.status, t.version FROM (" +
+                        "SELECT b.*, ROW_NUMBER() OVER (" +
+                        "PARTITION BY b.item_id, CASE WHEN b.start_date < :now THEN 0 ELSE 1 END " +
+                        "ORDER BY CASE WHEN b.start_date < :now THEN b.start_date END DESC NULLS LAST, " +
+                        "b.start_date ASC) AS rn " +
+                        "FROM bookings b " +
+                        "WHERE b.item_id IN (:itemIds) " +
+                        "AND b.status = 'APPROVED' " +
+                        "AND b.start_date <> :now) t " +
+                        "WHERE t.rn = 1", nativeQuery = true)
+        List<Booking> findLastAndNextApprovedByItemIds(@Param("itemIds") List<Long> itemIds,
+                        @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+/**
+ * A booking with the names of its item and booker, read straight from a join so that no entity is loaded.
+ */
+public record BookingRow(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status, Long itemId,
+        String itemName, Long bookerId, String bookerName) {
+}
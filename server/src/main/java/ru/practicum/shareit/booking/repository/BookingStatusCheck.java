@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.repository;
+
+import java.time.LocalDateTime;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+/**
+ * What a status change needs to know about a booking without loading it: the owner of its item,
+ * its current status, and the interval for the availability index.
+ */
+public record BookingStatusCheck(Long id, Long itemId, Long ownerId, BookingStatus status,
+        LocalDateTime start, LocalDateTime end) {
+}
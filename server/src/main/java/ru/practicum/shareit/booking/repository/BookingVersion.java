@@ -0,0 +1,7 @@
+package ru.practicum.shareit.booking.repository;
+
+/**
+ * Versions of a booking, of its item and of its booker, whose names the booking representation contains.
+ */
+public record BookingVersion(Long version, Long itemVersion, Long bookerVersion) {
+}
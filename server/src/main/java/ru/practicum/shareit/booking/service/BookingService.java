@@ -2,17 +2,35 @@ package ru.practicum.shareit.booking.service;
 
 import java.util.List;
 
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResult;
 
 public interface BookingService {
     BookingResponseDto createBooking(Long userId, BookingDto bookingDto);
 
     BookingResponseDto updateBookingStatus(Long userId, Long bookingId, Boolean approved);
 
+    /**
+     * Approves or rejects the listed bookings at once. Returns one result per distinct id, in request order;
+     * bookings that are missing, not owned by the user or no longer WAITING are reported and left as is.
+     */
+    List<BookingStatusResult> updateBookingStatuses(Long userId, List<Long> bookingIds, Boolean approved);
+
     BookingResponseDto getBookingById(Long userId, Long bookingId);
 
+    /**
+     * Strong ETag of {@link #getBookingById}, or {@code null} if the booking does not exist or the user may not
+     * see it.
+     */
+    String getBookingETag(Long userId, Long bookingId);
+
     List<BookingResponseDto> getBookingsByUser(Long userId, String state, int from, int size);
 
     List<BookingResponseDto> getBookingsByOwner(Long userId, String state, int from, int size);
+
+    List<BookingResponseDto> getBookingsByUser(Long userId, String state, BookingCursor after, int size);
+
+    List<BookingResponseDto> getBookingsByOwner(Long userId, String state, BookingCursor after, int size);
 }
@@ -1,7 +1,13 @@
 package ru.practicum.shareit.booking.service.impl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.PageRequest;
@@ -9,21 +15,32 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import io.micrometer.core.aop.MeterTag;
 import lombok.RequiredArgsConstructor;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingFilter;
+import ru.practicum.shareit.booking.BookingStateTagResolver;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResult;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRow;
+import ru.practicum.shareit.booking.repository.BookingStatusCheck;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.ServiceMetricsAspect;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
 @Service
 @RequiredArgsConstructor
@@ -32,7 +49,9 @@ public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final UserExistenceChecker userExistenceChecker;
     private final ItemRepository itemRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
     @Transactional
@@ -60,13 +79,14 @@ public class BookingServiceImpl implements BookingService {
         booking.setStatus(BookingStatus.WAITING);
 
         Booking savedBooking = bookingRepository.save(booking);
+        itemAvailabilityIndex.onBookingChanged(savedBooking);
         return BookingMapper.toBookingResponseDto(savedBooking);
     }
 
     @Override
     @Transactional
     public BookingResponseDto updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Booking not found"));
 
         if (!booking.getItem().getOwner().getId().equals(userId)) {
@@ -77,9 +97,51 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Booking status can only be changed from WAITING");
         }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        Booking updatedBooking = bookingRepository.save(booking);
-        return BookingMapper.toBookingResponseDto(updatedBooking);
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.updateStatusIfWaiting(bookingId, status) == 0) {
+            throw new ConflictException("Booking status was changed concurrently");
+        }
+
+        booking.setStatus(status);
+        itemAvailabilityIndex.onBookingChanged(booking);
+        return BookingMapper.toBookingResponseDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingStatusResult> updateBookingStatuses(Long userId, List<Long> bookingIds, Boolean approved) {
+        userExistenceChecker.requireExists(userId);
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        Map<Long, BookingStatusCheck> checks = bookingRepository.findStatusChecksByIdIn(ids).stream()
+                .collect(Collectors.toMap(BookingStatusCheck::id, Function.identity()));
+
+        Map<Long, BookingStatusResult> results = new LinkedHashMap<>();
+        List<Long> waiting = new ArrayList<>();
+        for (Long id : ids) {
+            BookingStatusCheck check = checks.get(id);
+            if (check == null) {
+                results.put(id, BookingStatusResult.failed(id, "Booking not found"));
+            } else if (!check.ownerId().equals(userId)) {
+                results.put(id, BookingStatusResult.failed(id, "Only item owner can update booking status"));
+            } else if (check.status() != BookingStatus.WAITING) {
+                results.put(id, BookingStatusResult.failed(id, "Booking status can only be changed from WAITING"));
+            } else {
+                results.put(id, null);
+                waiting.add(id);
+            }
+        }
+
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (!waiting.isEmpty()) {
+            // The checks hold row locks, so every booking seen WAITING is still WAITING here
+            bookingRepository.updateStatusesIfWaiting(waiting, status);
+            for (Long id : waiting) {
+                BookingStatusCheck check = checks.get(id);
+                results.put(id, BookingStatusResult.updated(id, status));
+                itemAvailabilityIndex.onBookingChanged(check.itemId(), id, check.start(), check.end(), status);
+            }
+        }
+        return new ArrayList<>(results.values());
     }
 
     @Override
@@ -96,78 +158,55 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingResponseDto> getBookingsByUser(Long userId, String state, int from, int size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+    public String getBookingETag(Long userId, Long bookingId) {
+        return bookingRepository.findVersionVisibleTo(bookingId, userId)
+                .map(version -> version.version() + "-" + version.itemVersion() + "-" + version.bookerVersion())
+                .orElse(null);
+    }
 
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-
-        switch (state.toUpperCase()) {
-            case "ALL":
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findByBookerIdAndCurrentOrderByStartDesc(userId, now, pageable);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findByBookerIdAndPastOrderByStartDesc(userId, now, pageable);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findByBookerIdAndFutureOrderByStartDesc(userId, now, pageable);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING,
-                        pageable);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED,
-                        pageable);
-                break;
-            default:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable);
-        }
+    @Override
+    public List<BookingResponseDto> getBookingsByUser(Long userId,
+            @MeterTag(key = ServiceMetricsAspect.STATE_TAG, resolver = BookingStateTagResolver.class) String state,
+            int from, int size) {
+        userExistenceChecker.requireExists(userId);
+
+        BookingFilter filter = BookingFilter.forState(state, LocalDateTime.now());
+        return toResponseDtos(bookingRepository.findByBooker(userId, filter, BookingCursor.FIRST,
+                PageRequest.of(from / size, size)));
+    }
 
-        return bookings.stream()
-                .map(BookingMapper::toBookingResponseDto)
-                .collect(Collectors.toList());
+    @Override
+    public List<BookingResponseDto> getBookingsByOwner(Long userId,
+            @MeterTag(key = ServiceMetricsAspect.STATE_TAG, resolver = BookingStateTagResolver.class) String state,
+            int from, int size) {
+        userExistenceChecker.requireExists(userId);
+
+        BookingFilter filter = BookingFilter.forState(state, LocalDateTime.now());
+        return toResponseDtos(bookingRepository.findByOwner(userId, filter, BookingCursor.FIRST,
+                PageRequest.of(from / size, size)));
     }
 
     @Override
-    public List<BookingResponseDto> getBookingsByOwner(Long userId, String state, int from, int size) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+    public List<BookingResponseDto> getBookingsByUser(Long userId,
+            @MeterTag(key = ServiceMetricsAspect.STATE_TAG, resolver = BookingStateTagResolver.class) String state,
+            BookingCursor after, int size) {
+        userExistenceChecker.requireExists(userId);
 
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Booking> bookings;
-        LocalDateTime now = LocalDateTime.now();
-
-        switch (state.toUpperCase()) {
-            case "ALL":
-                bookings = bookingRepository.findByItem_OwnerIdOrderByStartDesc(userId, pageable);
-                break;
-            case "CURRENT":
-                bookings = bookingRepository.findByItem_OwnerIdAndCurrentOrderByStartDesc(userId, now, pageable);
-                break;
-            case "PAST":
-                bookings = bookingRepository.findByItem_OwnerIdAndPastOrderByStartDesc(userId, now, pageable);
-                break;
-            case "FUTURE":
-                bookings = bookingRepository.findByItem_OwnerIdAndFutureOrderByStartDesc(userId, now, pageable);
-                break;
-            case "WAITING":
-                bookings = bookingRepository.findByItem_OwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING,
-                        pageable);
-                break;
-            case "REJECTED":
-                bookings = bookingRepository.findByItem_OwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED,
-                        pageable);
-                break;
-            default:
-                bookings = bookingRepository.findByItem_OwnerIdOrderByStartDesc(userId, pageable);
-        }
+        BookingFilter filter = BookingFilter.forState(state, LocalDateTime.now());
+        return toResponseDtos(bookingRepository.findByBooker(userId, filter, after, Pageable.ofSize(size)));
+    }
+
+    @Override
+    public List<BookingResponseDto> getBookingsByOwner(Long userId,
+            @MeterTag(key = ServiceMetricsAspect.STATE_TAG, resolver = BookingStateTagResolver.class) String state,
+            BookingCursor after, int size) {
+        userExistenceChecker.requireExists(userId);
+
+        BookingFilter filter = BookingFilter.forState(state, LocalDateTime.now());
+        return toResponseDtos(bookingRepository.findByOwner(userId, filter, after, Pageable.ofSize(size)));
+    }
 
+    private static List<BookingResponseDto> toResponseDtos(List<BookingRow> bookings) {
         return bookings.stream()
                 .map(BookingMapper::toBookingResponseDto)
                 .collect(Collectors.toList());
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -31,6 +32,13 @@ public class ExceptionHandler {
         return new ErrorResponse(e.getMessage());
     }
 
+    @org.springframework.web.bind.annotation.ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException e) {
+        log.warn("Concurrent modification: {}", e.getMessage());
+        return new ErrorResponse("Entity was changed concurrently");
+    }
+
     @org.springframework.web.bind.annotation.ExceptionHandler(ForbiddenException.class)
     @ResponseStatus(HttpStatus.FORBIDDEN)
     public ErrorResponse handleForbiddenException(ForbiddenException e) {
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,13 +11,20 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.item.bulk.ItemBulkImporter;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.servece.ItemService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,7 +32,10 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
 
+    private static final int DEFAULT_AVAILABILITY_DAYS = 30;
+
     private final ItemService itemService;
+    private final ItemBulkImporter itemBulkImporter;
 
     @PostMapping
     public ItemDto createItem(@RequestHeader("X-Sharer-User-Id") Long userId,
@@ -31,6 +43,13 @@ public class ItemController {
         return itemService.createItem(userId, itemDto);
     }
 
+    @PostMapping(path = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void createItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                            InputStream body,
+                            HttpServletResponse response) throws IOException {
+        itemBulkImporter.importItems(userId, body, response);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
                              @PathVariable Long itemId,
@@ -39,9 +58,14 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemWithBookingDto getItemById(@PathVariable Long itemId,
-                                         @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.getItemById(itemId, userId);
+    public ResponseEntity<ItemWithBookingDto> getItemById(@PathVariable Long itemId,
+                                                          @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          WebRequest request) {
+        String eTag = itemService.getItemETag(itemId, userId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(itemService.getItemById(itemId, userId));
     }
 
     @GetMapping
@@ -64,4 +88,13 @@ public class ItemController {
                                 @RequestBody CommentDto commentDto) {
         return itemService.addComment(itemId, userId, commentDto);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                              @RequestParam(required = false) LocalDateTime from,
+                                              @RequestParam(required = false) LocalDateTime to) {
+        LocalDateTime periodStart = from != null ? from : LocalDateTime.now().withNano(0);
+        LocalDateTime periodEnd = to != null ? to : periodStart.plusDays(DEFAULT_AVAILABILITY_DAYS);
+        return itemService.getAvailability(itemId, periodStart, periodEnd);
+    }
+}
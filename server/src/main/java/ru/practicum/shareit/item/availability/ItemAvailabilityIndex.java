@@ -0,0 +1,232 @@
+package ru.practicum.shareit.item.availability;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+/**
+ * Per-item sorted arrays of APPROVED and WAITING booking intervals.
+ * An item is loaded from the database on first request and then kept current
+ * by {@link #onBookingChanged(Booking)} after each committed booking change.
+ * At most {@code max-items} items are kept, each for {@code ttl} after it was loaded or changed.
+ */
+@Component
+public class ItemAvailabilityIndex {
+    private static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.APPROVED,
+            BookingStatus.WAITING);
+
+    private final BookingRepository bookingRepository;
+
+    // Futures, so that a load runs outside the cache's locks and changes arriving meanwhile are chained onto it
+    private final AsyncCache<Long, Intervals> intervalsByItem;
+
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+            @Value("${shareit.availability.max-items:10000}") long maxItems,
+            @Value("${shareit.availability.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.intervalsByItem = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(ttl)
+                .buildAsync();
+    }
+
+    public boolean isFree(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return intervals(itemId).firstOverlapping(seconds(from), seconds(to)) < 0;
+    }
+
+    public List<ItemAvailabilityDto.Window> freeWindows(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Intervals intervals = intervals(itemId);
+        long windowFrom = seconds(from);
+        long windowTo = seconds(to);
+        List<ItemAvailabilityDto.Window> windows = new ArrayList<>();
+
+        long cursor = windowFrom;
+        int i = intervals.firstOverlapping(windowFrom, windowTo);
+        if (i >= 0) {
+            for (; i < intervals.size() && intervals.starts[i] < windowTo; i++) {
+                if (intervals.ends[i] <= cursor) {
+                    continue;
+                }
+                if (intervals.starts[i] > cursor) {
+                    windows.add(window(cursor, intervals.starts[i]));
+                }
+                cursor = intervals.ends[i];
+            }
+        }
+        if (cursor < windowTo) {
+            windows.add(window(cursor, windowTo));
+        }
+        return windows;
+    }
+
+    /**
+     * Applies a created or re-statused booking to an already loaded item.
+     * Inside a transaction the change is applied only after commit.
+     */
+    public void onBookingChanged(Booking booking) {
+        onBookingChanged(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd(),
+                booking.getStatus());
+    }
+
+    /**
+     * Same as {@link #onBookingChanged(Booking)} for a booking that was changed without being loaded.
+     */
+    public void onBookingChanged(Long itemId, Long bookingId, LocalDateTime from, LocalDateTime to,
+            BookingStatus status) {
+        long id = bookingId;
+        long start = seconds(from);
+        long end = seconds(to);
+        boolean blocking = BLOCKING_STATUSES.contains(status);
+        // with/without are idempotent, so a load that already saw the change is not harmed by applying it again
+        Runnable apply = () -> intervalsByItem.asMap().computeIfPresent(itemId,
+                (key, intervals) -> intervals.thenApply(loaded -> blocking
+                        ? loaded.with(id, start, end)
+                        : loaded.without(id)));
+
+        AfterCommit.run(apply);
+    }
+
+    private Intervals intervals(Long itemId) {
+        CompletableFuture<Intervals> loading = new CompletableFuture<>();
+        CompletableFuture<Intervals> existing = intervalsByItem.asMap().putIfAbsent(itemId, loading);
+        if (existing != null) {
+            return existing.join();
+        }
+        try {
+            loading.complete(load(itemId));
+        } catch (RuntimeException e) {
+            // A failed future is dropped by the cache, the next request loads again
+            loading.completeExceptionally(e);
+            throw e;
+        }
+        return loading.join();
+    }
+
+    private Intervals load(Long itemId) {
+        List<Booking> bookings = bookingRepository.findByItemIdAndStatusInOrderByStartAsc(itemId,
+                BLOCKING_STATUSES);
+        Intervals intervals = Intervals.EMPTY;
+        for (Booking booking : bookings) {
+            intervals = intervals.with(booking.getId(), seconds(booking.getStart()), seconds(booking.getEnd()));
+        }
+        return intervals;
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static ItemAvailabilityDto.Window window(long start, long end) {
+        return ItemAvailabilityDto.Window.builder()
+                .start(LocalDateTime.ofEpochSecond(start, 0, ZoneOffset.UTC))
+                .end(LocalDateTime.ofEpochSecond(end, 0, ZoneOffset.UTC))
+                .build();
+    }
+
+    /**
+     * Immutable intervals sorted by start. {@code maxEnds[i]} is the largest end among the first
+     * {@code i + 1} intervals, which makes the first interval overlapping a window a binary search.
+     */
+    private static final class Intervals {
+        static final Intervals EMPTY = new Intervals(new long[0], new long[0], new long[0]);
+
+        final long[] ids;
+        final long[] starts;
+        final long[] ends;
+        final long[] maxEnds;
+
+        Intervals(long[] ids, long[] starts, long[] ends) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.maxEnds = new long[ends.length];
+            for (int i = 0; i < ends.length; i++) {
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        int firstOverlapping(long from, long to) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (maxEnds[mid] > from) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            if (low == size() || starts[low] >= to) {
+                return -1;
+            }
+            for (int i = low; i < size() && starts[i] < to; i++) {
+                if (ends[i] > from) {
+                    return low;
+                }
+            }
+            return -1;
+        }
+
+        Intervals with(long id, long start, long end) {
+            Intervals base = without(id);
+            int n = base.size();
+            int position = Arrays.binarySearch(base.starts, start);
+            position = position < 0 ? -position - 1 : position;
+
+            long[] newIds = new long[n + 1];
+            long[] newStarts = new long[n + 1];
+            long[] newEnds = new long[n + 1];
+            insert(base.ids, newIds, position, id);
+            insert(base.starts, newStarts, position, start);
+            insert(base.ends, newEnds, position, end);
+            return new Intervals(newIds, newStarts, newEnds);
+        }
+
+        Intervals without(long id) {
+            int position = -1;
+            for (int i = 0; i < size(); i++) {
+                if (ids[i] == id) {
+                    position = i;
+                    break;
+                }
+            }
+            if (position < 0) {
+                return this;
+            }
+            return new Intervals(remove(ids, position), remove(starts, position), remove(ends, position));
+        }
+
+        private static void insert(long[] source, long[] target, int position, long value) {
+            System.arraycopy(source, 0, target, 0, position);
+            target[position] = value;
+            System.arraycopy(source, position, target, position + 1, source.length - position);
+        }
+
+        private static long[] remove(long[] source, int position) {
+            long[] target = new long[source.length - 1];
+            System.arraycopy(source, 0, target, 0, position);
+            System.arraycopy(source, position + 1, target, position, source.length - position - 1);
+            return target;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.bulk;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.HttpServletResponse;
+import ru.practicum.shareit.item.dto.BulkItemResult;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.servece.ItemService;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+
+/**
+ * Reads an NDJSON stream of items line by line and creates them in transactions of {@code chunkSize} rows.
+ * The results of a chunk are written and flushed as soon as it commits, so neither the upload nor the
+ * response is held in memory. Blank lines are skipped but counted, results refer to lines from 1.
+ */
+@Component
+public class ItemBulkImporter {
+    private final ItemService itemService;
+    private final UserExistenceChecker userExistenceChecker;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ItemBulkImporter(ItemService itemService, UserExistenceChecker userExistenceChecker,
+            ObjectMapper objectMapper, @Value("${shareit.items.bulk.chunk-size:500}") int chunkSize) {
+        this.itemService = itemService;
+        this.userExistenceChecker = userExistenceChecker;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Checks the owner before anything is written, so an unknown owner still gets a regular 404.
+     */
+    public void importItems(Long userId, InputStream body, HttpServletResponse response) throws IOException {
+        userExistenceChecker.requireExists(userId);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = response.getOutputStream();
+        Map<Integer, ItemDto> chunk = new LinkedHashMap<>();
+        List<BulkItemResult> malformed = new ArrayList<>();
+        int lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                chunk.put(lineNumber, objectMapper.readValue(line, ItemDto.class));
+            } catch (JsonProcessingException e) {
+                malformed.add(BulkItemResult.failed(lineNumber, "Malformed JSON: " + e.getOriginalMessage()));
+            }
+            if (chunk.size() + malformed.size() == chunkSize) {
+                writeChunk(out, userId, chunk, malformed);
+                chunk = new LinkedHashMap<>();
+                malformed = new ArrayList<>();
+            }
+        }
+        writeChunk(out, userId, chunk, malformed);
+    }
+
+    private void writeChunk(OutputStream out, Long userId, Map<Integer, ItemDto> chunk,
+            List<BulkItemResult> malformed) throws IOException {
+        List<BulkItemResult> results = new ArrayList<>(malformed);
+        if (!chunk.isEmpty()) {
+            results.addAll(itemService.createItems(userId, chunk));
+            results.sort(Comparator.comparingInt(BulkItemResult::getLine));
+        }
+        for (BulkItemResult result : results) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one line of a bulk item import: the id of the created item or the reason it was skipped.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult {
+    private int line;
+    private Long id;
+    private String error;
+
+    public static BulkItemResult created(int line, Long id) {
+        return BulkItemResult.builder().line(line).id(id).build();
+    }
+
+    public static BulkItemResult failed(int line, String error) {
+        return BulkItemResult.builder().line(line).error(error).build();
+    }
+}
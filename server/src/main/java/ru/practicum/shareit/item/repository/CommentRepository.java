@@ -3,6 +3,8 @@ package ru.practicum.shareit.item.repository;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import ru.practicum.shareit.item.model.Comment;
@@ -12,7 +14,11 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
 
     List<Comment> findByItemIdOrderByCreatedDesc(Long itemId);
 
-    List<Comment> findByItemIdInOrderByCreatedDesc(List<Long> itemIds);
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.author " +
+            "WHERE c.item.id IN :itemIds " +
+            "ORDER BY c.created DESC")
+    List<Comment> findByItemIdInOrderByCreatedDesc(@Param("itemIds") List<Long> itemIds);
 
     List<Comment> findByItemId(Long itemId);
 }
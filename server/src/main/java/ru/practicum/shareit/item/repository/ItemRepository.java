@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -20,5 +22,22 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "AND i.available = true")
     List<Item> findByText(@Param("text") String text, Pageable pageable);
 
+    @Query(value = "SELECT i.id, i.name, i.description, i.available, i.owner_id, i.request_id, i.version " +
+            "FROM items i, to_tsquery('simple', :query) q " +
+            "WHERE i.search_vector @@ q " +
+            "AND i.available = true " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id", nativeQuery = true)
+    List<Item> findByFullText(@Param("query") String query, Pageable pageable);
+
+    @Query("SELECT new ru.practicum.shareit.item.repository.ItemVersion(i.version, i.owner.id, " +
+            "(SELECT COUNT(c) FROM Comment c WHERE c.item.id = i.id), " +
+            "(SELECT COALESCE(SUM(a.version), 0) FROM Comment c JOIN c.author a WHERE c.item.id = i.id)) " +
+            "FROM Item i WHERE i.id = :itemId")
+    Optional<ItemVersion> findVersionById(@Param("itemId") Long itemId);
+
     List<Item> findByRequestId(Long requestId);
+
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    List<Item> findByAvailableTrue();
 }
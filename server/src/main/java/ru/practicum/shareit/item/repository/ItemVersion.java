@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * What the representation of an item depends on, read without loading the item, its comments or bookings.
+ * Comments are never edited or deleted, so their count identifies them. User versions only grow, so the sum
+ * of the versions of the comment authors changes whenever one of their names does.
+ */
+public record ItemVersion(Long version, Long ownerId, Long comments, Long authorVersions) {
+}
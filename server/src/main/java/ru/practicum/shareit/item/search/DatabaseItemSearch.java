@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.search;
+
+import java.sql.DatabaseMetaData;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+/**
+ * Searches in the database: ranked full-text search over {@code items.search_vector} on PostgreSQL,
+ * the LIKE query on any other database (H2 in tests).
+ * Full-text search matches word prefixes, not substrings: "circ" finds "Circular Saw", "cular" does not.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "database")
+@Transactional(readOnly = true)
+public class DatabaseItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+    private final boolean fullText;
+
+    public DatabaseItemSearch(ItemRepository itemRepository, DataSource dataSource) {
+        this.itemRepository = itemRepository;
+        this.fullText = isPostgres(dataSource);
+        log.info("Item search uses {}", fullText ? "PostgreSQL full-text search" : "LIKE query");
+    }
+
+    @Override
+    public void index(ItemDto item) {
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int offset, int limit) {
+        Pageable pageable = PageRequest.of(offset / limit, limit);
+        List<Item> items;
+        if (fullText) {
+            String query = toPrefixQuery(text);
+            if (query.isEmpty()) {
+                return List.of();
+            }
+            items = itemRepository.findByFullText(query, pageable);
+        } else {
+            items = itemRepository.findByText(text, pageable);
+        }
+        return items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds a {@code to_tsquery} expression that requires every word of the text as a prefix,
+     * e.g. "power dri" becomes "power:* & dri:*".
+     */
+    static String toPrefixQuery(String text) {
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String productName = JdbcUtils.extractDatabaseMetaData(dataSource,
+                    DatabaseMetaData::getDatabaseProductName);
+            return DatabaseDriver.fromProductName(productName) == DatabaseDriver.POSTGRESQL;
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not detect database, falling back to LIKE search", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.List;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+/**
+ * Backend for {@code /items/search}, selected with {@code shareit.search.mode}.
+ */
+public interface ItemSearch {
+
+    void index(ItemDto item);
+
+    List<ItemDto> search(String text, int offset, int limit);
+}
@@ -0,0 +1,253 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+/**
+ * Trigram inverted index over name and description of available items.
+ * Matches the same case-insensitive substring semantics as {@link ItemRepository#findByText}:
+ * candidates come from intersecting trigram posting lists and are verified against the stored text.
+ * Built while the context starts, before the web server accepts requests.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ItemSearchIndex implements ItemSearch, SmartLifecycle {
+    private static final int GRAM = 3;
+    // The web server starts in a phase close to DEFAULT_PHASE, so the index is complete before the first request
+    private static final int PHASE = 0;
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, NavigableSet<Long>> postings = new HashMap<>();
+    private final NavigableSet<Long> allIds = new TreeSet<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    // Changes committed while a rebuild reads the items, replayed over its snapshot; null when not rebuilding
+    private List<ItemDto> pendingChanges;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Replaces the index with the available items in the database. Changes applied while the items are read
+     * are kept and applied again over the new contents, so a snapshot read before them does not undo them.
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<ItemDto> items;
+        try {
+            items = itemRepository.findByAvailableTrue().stream()
+                    .map(ItemMapper::toItemDto)
+                    .toList();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            allIds.clear();
+            entries.clear();
+            items.forEach(this::put);
+            pendingChanges.forEach(this::replace);
+            pendingChanges = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index built with {} items", items.size());
+    }
+
+    /**
+     * Adds, replaces or removes (when the item is not available) an item.
+     * Inside a transaction the change is applied only after commit.
+     */
+    @Override
+    public void index(ItemDto item) {
+        AfterCommit.run(() -> apply(item));
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int offset, int limit) {
+        String query = text.toLowerCase(Locale.ROOT);
+        List<ItemDto> result = new ArrayList<>();
+        if (limit <= 0) {
+            return result;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<NavigableSet<Long>> lists = postingsFor(query);
+            if (lists == null) {
+                return result;
+            }
+            lists.sort(Comparator.comparingInt(Set::size));
+            NavigableSet<Long> smallest = lists.get(0);
+
+            int skipped = 0;
+            for (Long id : smallest) {
+                if (!containedInAll(id, lists) || !entries.get(id).matches(query)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                    continue;
+                }
+                result.add(entries.get(id).item());
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(ItemDto item) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(item);
+            }
+            replace(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replace(ItemDto item) {
+        remove(item.getId());
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            put(item);
+        }
+    }
+
+    private void put(ItemDto item) {
+        Entry entry = new Entry(item, lower(item.getName()), lower(item.getDescription()));
+        entries.put(item.getId(), entry);
+        allIds.add(item.getId());
+        for (String gram : entry.grams()) {
+            postings.computeIfAbsent(gram, key -> new TreeSet<>()).add(item.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        allIds.remove(id);
+        for (String gram : entry.grams()) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    private List<NavigableSet<Long>> postingsFor(String query) {
+        List<NavigableSet<Long>> lists = new ArrayList<>();
+        if (query.length() < GRAM) {
+            lists.add(allIds);
+            return lists;
+        }
+        for (String gram : grams(query)) {
+            NavigableSet<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return null;
+            }
+            lists.add(ids);
+        }
+        return lists;
+    }
+
+    private static boolean containedInAll(Long id, List<NavigableSet<Long>> lists) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(ItemDto item, String name, String description) {
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+    }
+}
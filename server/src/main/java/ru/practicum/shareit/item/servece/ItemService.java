@@ -1,8 +1,12 @@
 package ru.practicum.shareit.item.servece;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
+import ru.practicum.shareit.item.dto.BulkItemResult;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 
@@ -14,11 +18,24 @@ public interface ItemService {
 
     ItemWithBookingDto getItemById(Long itemId, Long userId);
 
+    /**
+     * Strong ETag of {@link #getItemById} for this user, or {@code null} if the item does not exist.
+     */
+    String getItemETag(Long itemId, Long userId);
+
     ItemDto createItem(Long userId, ItemDto itemDto);
 
+    /**
+     * Creates the items of one chunk of a bulk import in a single transaction, keyed by their line numbers.
+     * Invalid items are skipped and reported without failing the rest of the chunk.
+     */
+    List<BulkItemResult> createItems(Long userId, Map<Integer, ItemDto> itemsByLine);
+
     ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto);
 
     List<ItemDto> searchItems(String text, int from, int size);
 
     CommentDto addComment(Long itemId, Long userId, CommentDto commentDto);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
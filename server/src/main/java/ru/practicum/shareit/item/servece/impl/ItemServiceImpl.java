@@ -1,8 +1,13 @@
 package ru.practicum.shareit.item.servece.impl;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.PageRequest;
@@ -16,7 +21,10 @@ import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.BulkItemResult;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
@@ -25,33 +33,40 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemVersion;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.item.servece.ItemService;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    // Column sizes of items.name and items.description in schema.sql
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DESCRIPTION_LENGTH = 512;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final UserExistenceChecker userExistenceChecker;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearch itemSearch;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
 
     @Override
     public List<ItemWithBookingDto> getItemsByOwner(Long userId, int from, int size) {
-        User owner = userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        userExistenceChecker.requireExists(userId);
 
         Pageable pageable = PageRequest.of(from / size, size);
         List<Item> items = itemRepository.findByOwnerIdOrderById(userId, pageable);
 
-        return items.stream()
-                .map(item -> addBookingInfoToItem(item, userId))
-                .collect(Collectors.toList());
+        return toItemsWithBookings(items);
     }
 
     @Override
@@ -81,6 +96,22 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    @Override
+    public String getItemETag(Long itemId, Long userId) {
+        ItemVersion version = itemRepository.findVersionById(itemId).orElse(null);
+        if (version == null) {
+            return null;
+        }
+        String eTag = version.version() + "-" + version.comments() + "-" + version.authorVersions();
+        if (!Objects.equals(version.ownerId(), userId)) {
+            return eTag;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> last = bookingRepository.findLastApprovedIdByItemId(itemId, now, Pageable.ofSize(1));
+        List<Long> next = bookingRepository.findNextApprovedIdByItemId(itemId, now, Pageable.ofSize(1));
+        return eTag + "-" + (last.isEmpty() ? 0 : last.get(0)) + "-" + (next.isEmpty() ? 0 : next.get(0));
+    }
+
     @Override
     @Transactional
     public ItemDto createItem(Long userId, ItemDto itemDto) {
@@ -95,7 +126,68 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = ItemMapper.toItem(itemDto, owner, request);
         Item savedItem = itemRepository.save(item);
-        return ItemMapper.toItemDto(savedItem);
+        ItemDto savedItemDto = ItemMapper.toItemDto(savedItem);
+        itemSearch.index(savedItemDto);
+        return savedItemDto;
+    }
+
+    @Override
+    @Transactional
+    public List<BulkItemResult> createItems(Long userId, Map<Integer, ItemDto> itemsByLine) {
+        userExistenceChecker.requireExists(userId);
+        User owner = userRepository.getReferenceById(userId);
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(itemsByLine.values().stream()
+                        .map(ItemDto::getRequestId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        List<BulkItemResult> results = new ArrayList<>(itemsByLine.size());
+        List<Integer> lines = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        itemsByLine.forEach((line, itemDto) -> {
+            String error = bulkItemError(itemDto, requests);
+            if (error != null) {
+                results.add(BulkItemResult.failed(line, error));
+                return;
+            }
+            Item item = ItemMapper.toItem(itemDto, owner, requests.get(itemDto.getRequestId()));
+            item.setId(null);
+            lines.add(line);
+            items.add(item);
+        });
+
+        itemRepository.saveAll(items);
+        for (int i = 0; i < items.size(); i++) {
+            ItemDto savedItemDto = ItemMapper.toItemDto(items.get(i));
+            itemSearch.index(savedItemDto);
+            results.add(BulkItemResult.created(lines.get(i), savedItemDto.getId()));
+        }
+        results.sort(Comparator.comparingInt(BulkItemResult::getLine));
+        return results;
+    }
+
+    // The gateway validates each line, this only keeps one bad line from failing the whole chunk
+    private static String bulkItemError(ItemDto itemDto, Map<Long, ItemRequest> requests) {
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Name cannot be blank";
+        }
+        if (itemDto.getName().length() > MAX_NAME_LENGTH) {
+            return "Name cannot be longer than " + MAX_NAME_LENGTH + " characters";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Description cannot be blank";
+        }
+        if (itemDto.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Description cannot be longer than " + MAX_DESCRIPTION_LENGTH + " characters";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Available status cannot be null";
+        }
+        if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+            return "Request not found";
+        }
+        return null;
     }
 
     @Override
@@ -119,7 +211,9 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(item);
-        return ItemMapper.toItemDto(updatedItem);
+        ItemDto updatedItemDto = ItemMapper.toItemDto(updatedItem);
+        itemSearch.index(updatedItemDto);
+        return updatedItemDto;
     }
 
     @Override
@@ -128,11 +222,7 @@ public class ItemServiceImpl implements ItemService {
             return List.of();
         }
 
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<Item> items = itemRepository.findByText(text, pageable);
-        return items.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        return itemSearch.search(text, from / size * size, size);
     }
 
     @Override
@@ -163,56 +253,65 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentDto(savedComment);
     }
 
-    private ItemWithBookingDto addBookingInfoToItem(Item item, Long userId) {
-        List<CommentDto> comments = commentRepository.findByItemId(item.getId()).stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-
-        if (item.getOwner().getId().equals(userId)) {
-            LocalDateTime now = LocalDateTime.now();
-
-            List<Booking> lastBookings = bookingRepository.findByItemIdAndEndBeforeOrderByEndDescAllStatuses(
-                    item.getId(), now, Pageable.ofSize(1));
-            Booking lastBooking = lastBookings.isEmpty() ? null : lastBookings.get(0);
-
-            List<Booking> nextBookings = bookingRepository.findByItemIdAndStartAfterOrderByStartAscAllStatuses(
-                    item.getId(), now, Pageable.ofSize(1));
-            Booking nextBooking = nextBookings.isEmpty() ? null : nextBookings.get(0);
-
-            return ItemMapper.toItemWithBookingDto(item, lastBooking, nextBooking, comments);
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Item not found");
+        }
+        if (!to.isAfter(from)) {
+            throw new ValidationException("End of period must be after its start");
         }
 
-        return ItemMapper.toItemWithBookingDto(item, null, null, comments);
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .free(itemAvailabilityIndex.isFree(itemId, from, to))
+                .freeWindows(itemAvailabilityIndex.freeWindows(itemId, from, to))
+                .build();
     }
 
     @Override
     public List<ItemWithBookingDto> getAllItemsByUserId(Long userId, Integer from, Integer size) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        userExistenceChecker.requireExists(userId);
 
         Pageable pageable = PageRequest.of(from / size, size);
         List<Item> items = itemRepository.findByOwnerIdOrderById(userId, pageable);
 
+        return toItemsWithBookings(items);
+    }
+
+    private List<ItemWithBookingDto> toItemsWithBookings(List<Item> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
         LocalDateTime now = LocalDateTime.now();
 
+        Map<Long, List<CommentDto>> commentsByItem = commentRepository.findByItemIdInOrderByCreatedDesc(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextApprovedByItemIds(itemIds, now)) {
+            Long itemId = booking.getItem().getId();
+            if (booking.getStart().isBefore(now)) {
+                lastBookings.put(itemId, booking);
+            } else {
+                nextBookings.put(itemId, booking);
+            }
+        }
+
         return items.stream()
-                .map(item -> {
-                    Long itemId = item.getId();
-
-                    List<Comment> comments = commentRepository.findByItemId(itemId);
-                    List<CommentDto> commentDtos = comments.stream()
-                            .map(CommentMapper::toCommentDto)
-                            .collect(Collectors.toList());
-
-                    List<Booking> lastBookings = bookingRepository.findByItemIdAndEndBeforeOrderByEndDescAllStatuses(
-                            itemId, now, Pageable.ofSize(1));
-                    Booking lastBooking = lastBookings.isEmpty() ? null : lastBookings.get(0);
-                    List<Booking> nextBookings = bookingRepository.findByItemIdAndStartAfterOrderByStartAscAllStatuses(
-                            itemId, now, Pageable.ofSize(1));
-                    Booking nextBooking = nextBookings.isEmpty() ? null : nextBookings.get(0);
-
-                    return ItemMapper.toItemWithBookingDto(item, lastBooking, nextBooking, commentDtos);
-                })
+                .map(item -> ItemMapper.toItemWithBookingDto(item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        commentsByItem.getOrDefault(item.getId(), List.of())))
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.metrics;
+
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * JDBC statements executed by the current thread since {@link #start()} and the time spent in them.
+ * Filled by {@link Listener}, which is attached to the proxied data source.
+ */
+public final class QueryStatistics {
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private int count;
+    private long nanos;
+    private long startedAt;
+
+    private QueryStatistics() {
+    }
+
+    public static QueryStatistics start() {
+        QueryStatistics statistics = new QueryStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    static class Listener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            QueryStatistics statistics = CURRENT.get();
+            if (statistics != null) {
+                statistics.startedAt = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            QueryStatistics statistics = CURRENT.get();
+            if (statistics != null) {
+                statistics.count++;
+                statistics.nanos += System.nanoTime() - statistics.startedAt;
+            }
+        }
+    }
+}
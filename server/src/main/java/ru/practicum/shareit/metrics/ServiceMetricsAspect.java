@@ -0,0 +1,117 @@
+package ru.practicum.shareit.metrics;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeanUtils;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.common.annotation.NoOpValueResolver;
+import io.micrometer.common.annotation.ValueResolver;
+import io.micrometer.core.aop.MeterTag;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+
+/**
+ * Times every public method of the {@code *ServiceImpl} beans as {@code shareit.service} with a percentile
+ * histogram. Tags: {@code class}, {@code method}, {@code outcome} (the error class {@code ExceptionHandler} turns
+ * the exception into) and {@code state}, taken from a parameter annotated with {@code @MeterTag(key = "state")}
+ * or {@code none}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    public static final String TIMER = "shareit.service";
+    public static final String STATE_TAG = "state";
+    private static final String NO_STATE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, Optional<StateParameter>> stateParameters = new ConcurrentHashMap<>();
+    private final Map<Class<? extends ValueResolver>, ValueResolver> resolvers = new ConcurrentHashMap<>();
+
+    @Around("within(ru.practicum.shareit..*ServiceImpl) && execution(public * *(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+            Method method = AopUtils.getMostSpecificMethod(
+                    ((MethodSignature) joinPoint.getSignature()).getMethod(), targetClass);
+            sample.stop(Timer.builder(TIMER)
+                    .tag("class", targetClass.getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("outcome", outcome(failure))
+                    .tag(STATE_TAG, state(method, joinPoint.getArgs()))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "ok";
+        }
+        if (failure instanceof NotFoundException) {
+            return "not_found";
+        }
+        if (failure instanceof ValidationException) {
+            return "validation";
+        }
+        if (failure instanceof ConflictException || failure instanceof ObjectOptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (failure instanceof ForbiddenException) {
+            return "forbidden";
+        }
+        return "error";
+    }
+
+    private String state(Method method, Object[] args) {
+        return stateParameters.computeIfAbsent(method, ServiceMetricsAspect::findStateParameter)
+                .map(parameter -> resolve(parameter.tag(), args[parameter.index()]))
+                .orElse(NO_STATE);
+    }
+
+    private String resolve(MeterTag tag, Object value) {
+        if (tag.resolver() == NoOpValueResolver.class) {
+            return String.valueOf(value);
+        }
+        return resolvers.computeIfAbsent(tag.resolver(), BeanUtils::instantiateClass).resolve(value);
+    }
+
+    private static Optional<StateParameter> findStateParameter(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof MeterTag tag && STATE_TAG.equals(tag.key())) {
+                    return Optional.of(new StateParameter(i, tag));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private record StateParameter(int index, MeterTag tag) {
+    }
+}
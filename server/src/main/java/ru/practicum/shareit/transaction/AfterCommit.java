@@ -0,0 +1,29 @@
+package ru.practicum.shareit.transaction;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Defers in-memory index updates until the surrounding transaction commits, so a rollback leaves them untouched.
+ */
+@UtilityClass
+public class AfterCommit {
+
+    /**
+     * Runs {@code action} after the current transaction commits, or right away outside a transaction.
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package ru.practicum.shareit.user.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import ru.practicum.shareit.user.model.User;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    @Query("SELECT u.id FROM User u")
+    List<Long> findAllIds();
 }
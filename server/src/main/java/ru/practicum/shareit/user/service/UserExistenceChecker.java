@@ -0,0 +1,134 @@
+package ru.practicum.shareit.user.service;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.transaction.AfterCommit;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+/**
+ * Bitmap of known user ids, so validating a caller does not load the user.
+ * Built at startup and kept current by {@link #onUserCreated(Long)} and {@link #onUserDeleted(Long)};
+ * an id missing from the bitmap is checked with {@link UserRepository#existsById} and remembered if found
+ * and no user was deleted meanwhile.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserExistenceChecker {
+    private final UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BitSet ids = new BitSet();
+    // Bumped on every deletion, guarded by the lock
+    private long deletions;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<Long> known = userRepository.findAllIds();
+
+        lock.writeLock().lock();
+        try {
+            ids.clear();
+            known.forEach(id -> set(id, true));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("User existence bitmap built with {} users", known.size());
+    }
+
+    public void requireExists(Long userId) {
+        if (!exists(userId)) {
+            throw new NotFoundException("User not found");
+        }
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        if (isKnown(userId)) {
+            return true;
+        }
+        // existsById may read the user before a concurrent deletion commits and clears its bit
+        long deletionsBefore = deletions();
+        if (!userRepository.existsById(userId)) {
+            return false;
+        }
+        remember(userId, deletionsBefore);
+        return true;
+    }
+
+    /**
+     * Inside a transaction the bitmap changes only after commit.
+     */
+    public void onUserCreated(Long userId) {
+        AfterCommit.run(() -> update(userId, true));
+    }
+
+    public void onUserDeleted(Long userId) {
+        AfterCommit.run(() -> update(userId, false));
+    }
+
+    private boolean isKnown(long userId) {
+        if (userId < 0 || userId > Integer.MAX_VALUE) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return ids.get((int) userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long deletions() {
+        lock.readLock().lock();
+        try {
+            return deletions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remember(long userId, long deletionsBefore) {
+        lock.writeLock().lock();
+        try {
+            if (deletions == deletionsBefore) {
+                set(userId, true);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void update(long userId, boolean present) {
+        lock.writeLock().lock();
+        try {
+            if (!present) {
+                deletions++;
+            }
+            set(userId, present);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Ids beyond the int range are never stored and always go to the database
+    private void set(long userId, boolean present) {
+        if (userId >= 0 && userId <= Integer.MAX_VALUE) {
+            ids.set((int) userId, present);
+        }
+    }
+}
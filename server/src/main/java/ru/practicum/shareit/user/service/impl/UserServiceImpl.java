@@ -14,6 +14,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 import ru.practicum.shareit.user.service.UserService;
 
 @Service
@@ -22,6 +23,7 @@ import ru.practicum.shareit.user.service.UserService;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final UserExistenceChecker userExistenceChecker;
 
     @Override
     public List<UserDto> getAllUsers() {
@@ -41,8 +43,10 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public UserDto createUser(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
+        // Ids come from a sequence, so without a flush the INSERT and its unique-email check run at commit
         try {
-            User savedUser = userRepository.save(user);
+            User savedUser = userRepository.saveAndFlush(user);
+            userExistenceChecker.onUserCreated(savedUser.getId());
             return UserMapper.toUserDto(savedUser);
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Email already exists: " + userDto.getEmail());
@@ -63,7 +67,7 @@ public class UserServiceImpl implements UserService {
         }
 
         try {
-            User updatedUser = userRepository.save(existingUser);
+            User updatedUser = userRepository.saveAndFlush(existingUser);
             return UserMapper.toUserDto(updatedUser);
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException("Email already exists: " + userDto.getEmail());
@@ -77,5 +81,6 @@ public class UserServiceImpl implements UserService {
             throw new NotFoundException("User not found");
         }
         userRepository.deleteById(userId);
+        userExistenceChecker.onUserDeleted(userId);
     }
 }
@@ -0,0 +1,6 @@
+-- Полнотекстовый поиск по вещам
+ALTER TABLE items ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', name), 'A') || setweight(to_tsvector('simple', description), 'B')
+) STORED;
+
+CREATE INDEX idx_items_search_vector ON items USING GIN (search_vector);
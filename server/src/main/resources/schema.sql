@@ -3,19 +3,33 @@ DROP TABLE IF EXISTS bookings;
 DROP TABLE IF EXISTS items;
 DROP TABLE IF EXISTS requests;
 DROP TABLE IF EXISTS users;
+DROP SEQUENCE IF EXISTS comments_seq;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS users_seq;
+
+-- Последовательности идентификаторов: INCREMENT равен allocationSize сущностей,
+-- Hibernate резервирует по одному блоку id за обращение и может группировать вставки
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE bookings_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE comments_seq START WITH 1 INCREMENT BY 50;
 
 -- Создание таблицы пользователей
 CREATE TABLE users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT DEFAULT nextval('users_seq') NOT NULL,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
 -- Создание таблицы запросов на вещи
 CREATE TABLE requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT DEFAULT nextval('requests_seq') NOT NULL,
     description VARCHAR(512) NOT NULL,
     requester_id BIGINT NOT NULL,
     created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -25,12 +39,13 @@ CREATE TABLE requests (
 
 -- Создание таблицы вещей
 CREATE TABLE items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT DEFAULT nextval('items_seq') NOT NULL,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(512) NOT NULL,
     available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT fk_item_to_user FOREIGN KEY(owner_id) REFERENCES users(id),
     CONSTRAINT fk_item_to_request FOREIGN KEY(request_id) REFERENCES requests(id)
@@ -38,12 +53,13 @@ CREATE TABLE items (
 
 -- Создание таблицы бронирований
 CREATE TABLE bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT DEFAULT nextval('bookings_seq') NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id BIGINT NOT NULL,
     booker_id BIGINT NOT NULL,
     status VARCHAR(255) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT fk_booking_to_item FOREIGN KEY(item_id) REFERENCES items(id),
     CONSTRAINT fk_booking_to_user FOREIGN KEY(booker_id) REFERENCES users(id)
@@ -51,7 +67,7 @@ CREATE TABLE bookings (
 
 -- Создание таблицы комментариев
 CREATE TABLE comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT DEFAULT nextval('comments_seq') NOT NULL,
     text VARCHAR(512) NOT NULL,
     item_id BIGINT NOT NULL,
     author_id BIGINT NOT NULL,
@@ -60,3 +76,12 @@ CREATE TABLE comments (
     CONSTRAINT fk_comment_to_item FOREIGN KEY(item_id) REFERENCES items(id),
     CONSTRAINT fk_comment_to_user FOREIGN KEY(author_id) REFERENCES users(id)
 );
+
+-- Индексы для частых выборок
+CREATE INDEX idx_requests_requester_created ON requests (requester_id, created);
+CREATE INDEX idx_requests_created ON requests (created);
+CREATE INDEX idx_items_owner ON items (owner_id);
+CREATE INDEX idx_items_request ON items (request_id);
+CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date);
+CREATE INDEX idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX idx_comments_item ON comments (item_id);
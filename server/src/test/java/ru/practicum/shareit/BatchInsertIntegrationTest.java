@@ -0,0 +1,55 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.metrics.QueryStatistics;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class BatchInsertIntegrationTest {
+
+        @Autowired
+        private UserRepository userRepository;
+
+        @Autowired
+        private ItemRepository itemRepository;
+
+        @Autowired
+        private TransactionTemplate transactionTemplate;
+
+        @Test
+        void shouldInsertItemsInBatches() {
+                User owner = userRepository.save(User.builder().name("Owner").email("owner@example.com").build());
+                List<Item> items = IntStream.range(0, 40)
+                                .mapToObj(i -> Item.builder().name("Item " + i).description("Description " + i)
+                                                .available(true).owner(owner).build())
+                                .toList();
+
+                QueryStatistics statistics = QueryStatistics.start();
+                try {
+                        transactionTemplate.executeWithoutResult(status -> itemRepository.saveAll(items));
+                } finally {
+                        QueryStatistics.stop();
+                }
+
+                // The first block of items_seq takes two calls of the sequence, then a single JDBC batch follows
+                assertTrue(statistics.getCount() <= 3, "Executed " + statistics.getCount() + " statements");
+                assertEquals(40, itemRepository.findByOwnerIdOrderById(owner.getId(),
+                                Pageable.unpaged()).size());
+        }
+}
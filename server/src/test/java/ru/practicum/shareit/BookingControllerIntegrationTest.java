@@ -0,0 +1,302 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResult;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class BookingControllerIntegrationTest {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Test
+        void shouldWalkOwnerBookingsWithCursor() throws Exception {
+                long ownerId = createUser("owner@example.com");
+                long bookerId = createUser("booker@example.com");
+                long itemId = createItem(ownerId);
+
+                LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+                long second = createBooking(bookerId, itemId, start.plusDays(1));
+                long fourth = createBooking(bookerId, itemId, start);
+                long third = createBooking(bookerId, itemId, start);
+                long first = createBooking(bookerId, itemId, start.plusDays(2));
+
+                List<Long> seen = new ArrayList<>();
+                String cursor = "";
+                while (cursor != null) {
+                        MockHttpServletResponse response = mockMvc.perform(get("/bookings/owner")
+                                        .header("X-Sharer-User-Id", ownerId)
+                                        .param("after", cursor)
+                                        .param("size", "2"))
+                                        .andExpect(status().isOk())
+                                        .andReturn().getResponse();
+                        List<BookingResponseDto> page = objectMapper.readValue(response.getContentAsString(),
+                                        new TypeReference<>() {
+                                        });
+                        page.forEach(booking -> seen.add(booking.getId()));
+                        cursor = response.getHeader(BookingCursor.NEXT_CURSOR_HEADER);
+                        if (page.size() < 2) {
+                                assertNull(cursor);
+                        }
+                }
+
+                assertEquals(List.of(first, second, third, fourth), seen);
+        }
+
+        @Test
+        void shouldListBookingsWithOneStatementWhateverTheNumberOfItemsAndBookers() throws Exception {
+                long ownerId = createUser("owner@example.com");
+                List<Long> bookerIds = new ArrayList<>();
+                for (int i = 0; i < 3; i++) {
+                        bookerIds.add(createUser("booker" + i + "@example.com"));
+                }
+                LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+                for (int i = 0; i < 3; i++) {
+                        long itemId = createItem(ownerId, "Item " + i);
+                        for (long bookerId : bookerIds) {
+                                createBooking(bookerId, itemId, start.plusDays(i));
+                        }
+                }
+
+                for (String state : List.of("ALL", "WAITING", "FUTURE")) {
+                        mockMvc.perform(get("/bookings/owner")
+                                        .header("X-Sharer-User-Id", ownerId)
+                                        .param("state", state)
+                                        .param("size", "20"))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.length()").value(9))
+                                        .andExpect(jsonPath("$[0].item.name").value("Item 2"))
+                                        .andExpect(jsonPath("$[0].booker.name").value("User"))
+                                        .andExpect(QueryBudget.atMost(1));
+                        mockMvc.perform(get("/bookings/owner")
+                                        .header("X-Sharer-User-Id", ownerId)
+                                        .param("state", state)
+                                        .param("after", ""))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.length()").value(9))
+                                        .andExpect(QueryBudget.atMost(1));
+                        mockMvc.perform(get("/bookings")
+                                        .header("X-Sharer-User-Id", bookerIds.get(0))
+                                        .param("state", state))
+                                        .andExpect(status().isOk())
+                                        .andExpect(jsonPath("$.length()").value(3))
+                                        .andExpect(QueryBudget.atMost(1));
+                }
+        }
+
+        @Test
+        void shouldAnswerConditionalBookingReadsWithNotModified() throws Exception {
+                long ownerId = createUser("owner@example.com");
+                long bookerId = createUser("booker@example.com");
+                long strangerId = createUser("stranger@example.com");
+                long bookingId = createBooking(bookerId, createItem(ownerId), LocalDateTime.now().plusDays(1));
+
+                String eTag = mockMvc.perform(get("/bookings/" + bookingId).header("X-Sharer-User-Id", bookerId))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+                mockMvc.perform(get("/bookings/" + bookingId)
+                                .header("X-Sharer-User-Id", bookerId)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(QueryBudget.atMost(1));
+                mockMvc.perform(get("/bookings/" + bookingId)
+                                .header("X-Sharer-User-Id", strangerId)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                                .andExpect(status().isNotFound());
+
+                mockMvc.perform(patch("/bookings/" + bookingId)
+                                .header("X-Sharer-User-Id", ownerId)
+                                .param("approved", "true"))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/bookings/" + bookingId)
+                                .header("X-Sharer-User-Id", bookerId)
+                                .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status").value("APPROVED"));
+
+                String approvedETag = mockMvc.perform(get("/bookings/" + bookingId)
+                                .header("X-Sharer-User-Id", bookerId))
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+                mockMvc.perform(patch("/users/" + bookerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"Renamed\"}"))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/bookings/" + bookingId)
+                                .header("X-Sharer-User-Id", ownerId)
+                                .header(HttpHeaders.IF_NONE_MATCH, approvedETag))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.booker.name").value("Renamed"));
+        }
+
+        @Test
+        void shouldApproveOwnerBookingsInOneBatch() throws Exception {
+                long ownerId = createUser("owner@example.com");
+                long bookerId = createUser("booker@example.com");
+                long strangerId = createUser("stranger@example.com");
+                long itemId = createItem(ownerId);
+                long strangerItemId = createItem(strangerId);
+
+                LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+                List<Long> waiting = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                        waiting.add(createBooking(bookerId, itemId, start.plusDays(i)));
+                }
+                long approved = createBooking(bookerId, itemId, start.plusDays(10));
+                mockMvc.perform(patch("/bookings/" + approved)
+                                .header("X-Sharer-User-Id", ownerId)
+                                .param("approved", "true"))
+                                .andExpect(status().isOk());
+                long foreign = createBooking(bookerId, strangerItemId, start);
+
+                List<Long> ids = new ArrayList<>(waiting);
+                ids.addAll(List.of(approved, foreign, 999_999L));
+                BookingStatusBatchDto batch = BookingStatusBatchDto.builder().ids(ids).approved(true).build();
+                String response = mockMvc.perform(patch("/bookings/batch")
+                                .header("X-Sharer-User-Id", ownerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(batch)))
+                                .andExpect(status().isOk())
+                                .andExpect(QueryBudget.atMost(2))
+                                .andReturn().getResponse().getContentAsString();
+                List<BookingStatusResult> results = objectMapper.readValue(response, new TypeReference<>() {
+                });
+
+                List<BookingStatusResult> expected = new ArrayList<>();
+                waiting.forEach(id -> expected.add(BookingStatusResult.updated(id, BookingStatus.APPROVED)));
+                expected.add(BookingStatusResult.failed(approved, "Booking status can only be changed from WAITING"));
+                expected.add(BookingStatusResult.failed(foreign, "Only item owner can update booking status"));
+                expected.add(BookingStatusResult.failed(999_999L, "Booking not found"));
+                assertEquals(expected, results);
+
+                mockMvc.perform(get("/bookings/" + waiting.get(0)).header("X-Sharer-User-Id", bookerId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status").value("APPROVED"));
+                mockMvc.perform(get("/bookings/" + foreign).header("X-Sharer-User-Id", bookerId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.status").value("WAITING"));
+        }
+
+        @Test
+        void shouldExportOwnerBookingHistory() throws Exception {
+                long ownerId = createUser("owner@example.com");
+                long bookerId = createUser("booker@example.com");
+                long strangerId = createUser("stranger@example.com");
+                long itemId = createItem(ownerId, "Tent, \"large\"");
+                createBooking(bookerId, createItem(strangerId), LocalDateTime.now().plusDays(1));
+
+                LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+                long first = createBooking(bookerId, itemId, start);
+                long second = createBooking(bookerId, itemId, start.plusDays(1));
+
+                String ndjson = mockMvc.perform(get("/bookings/owner/export").header("X-Sharer-User-Id", ownerId))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string(HttpHeaders.CONTENT_TYPE,
+                                                MediaType.APPLICATION_NDJSON_VALUE))
+                                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+                                                "attachment; filename=\"bookings.ndjson\""))
+                                .andReturn().getResponse().getContentAsString();
+                String[] lines = ndjson.split("\n");
+                assertEquals(2, lines.length);
+                assertEquals(second, objectMapper.readTree(lines[0]).get("id").asLong());
+                assertEquals("2030-01-01T10:00:00", objectMapper.readTree(lines[1]).get("start").asText());
+                assertEquals("Tent, \"large\"", objectMapper.readTree(lines[1]).get("itemName").asText());
+
+                String csv = mockMvc.perform(get("/bookings/owner/export")
+                                .header("X-Sharer-User-Id", ownerId)
+                                .param("format", "CSV"))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+                assertEquals("id,start,end,status,item_id,item_name,booker_id,booker_name\r\n"
+                                + second + ",2030-01-02T10:00:00,2030-01-02T11:00:00,WAITING," + itemId
+                                + ",\"Tent, \"\"large\"\"\"," + bookerId + ",User\r\n"
+                                + first + ",2030-01-01T10:00:00,2030-01-01T11:00:00,WAITING," + itemId
+                                + ",\"Tent, \"\"large\"\"\"," + bookerId + ",User\r\n", csv);
+        }
+
+        @Test
+        void shouldRejectExportForUnknownOwnerOrFormat() throws Exception {
+                long ownerId = createUser("owner@example.com");
+
+                mockMvc.perform(get("/bookings/owner/export").header("X-Sharer-User-Id", 999_999L))
+                                .andExpect(status().isNotFound());
+                mockMvc.perform(get("/bookings/owner/export")
+                                .header("X-Sharer-User-Id", ownerId)
+                                .param("format", "xml"))
+                                .andExpect(status().isBadRequest())
+                                .andExpect(jsonPath("$.error").value("Unknown format: xml"));
+        }
+
+        private long createUser(String email) throws Exception {
+                UserDto user = UserDto.builder().name("User").email(email).build();
+                String response = mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(user)))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+                return objectMapper.readValue(response, UserDto.class).getId();
+        }
+
+        private long createItem(long ownerId) throws Exception {
+                return createItem(ownerId, "Tent");
+        }
+
+        private long createItem(long ownerId, String name) throws Exception {
+                ItemDto item = ItemDto.builder().name(name).description("Two-person tent").available(true).build();
+                String response = mockMvc.perform(post("/items")
+                                .header("X-Sharer-User-Id", ownerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(item)))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                return objectMapper.readValue(response, ItemDto.class).getId();
+        }
+
+        private long createBooking(long bookerId, long itemId, LocalDateTime start) throws Exception {
+                BookingDto booking = BookingDto.builder().itemId(itemId).start(start).end(start.plusHours(1)).build();
+                String response = mockMvc.perform(post("/bookings")
+                                .header("X-Sharer-User-Id", bookerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(booking)))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                return objectMapper.readValue(response, BookingResponseDto.class).getId();
+        }
+}
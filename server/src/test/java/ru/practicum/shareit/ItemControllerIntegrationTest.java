@@ -1,26 +1,37 @@
 package ru.practicum.shareit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.time.LocalDateTime;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.metrics.QueryStatisticsFilter;
 import ru.practicum.shareit.user.dto.UserDto;
 
-@SpringBootTest
+@SpringBootTest(properties = "shareit.items.bulk.chunk-size=2")
 @AutoConfigureMockMvc
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class ItemControllerIntegrationTest {
@@ -90,4 +101,249 @@ class ItemControllerIntegrationTest {
                                 .andExpect(status().isOk())
                                 .andExpect(jsonPath("$.name").value("Electric Screwdriver"));
         }
+
+        @Test
+        void shouldListOwnerItemsWithLastNextBookingsAndComments() throws Exception {
+                ItemDto itemToCreate = ItemDto.builder().name("Ladder").description("Folding ladder")
+                                .available(true).build();
+                String itemResponse = mockMvc.perform(post("/items")
+                                .header("X-Sharer-User-Id", userId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(itemToCreate)))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                long itemId = objectMapper.readValue(itemResponse, ItemDto.class).getId();
+
+                UserDto bookerToCreate = UserDto.builder().name("Booker").email("booker@example.com").build();
+                String bookerResponse = mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookerToCreate)))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+                long bookerId = objectMapper.readValue(bookerResponse, UserDto.class).getId();
+
+                LocalDateTime now = LocalDateTime.now();
+                long pastBookingId = createApprovedBooking(bookerId, itemId, now.minusDays(2), now.minusDays(1));
+                long futureBookingId = createApprovedBooking(bookerId, itemId, now.plusDays(1), now.plusDays(2));
+
+                mockMvc.perform(post("/items/" + itemId + "/comment")
+                                .header("X-Sharer-User-Id", bookerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(
+                                                CommentDto.builder().text("Sturdy").build())))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(get("/items").header("X-Sharer-User-Id", userId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].lastBooking.id").value(pastBookingId))
+                                .andExpect(jsonPath("$[0].nextBooking.id").value(futureBookingId))
+                                .andExpect(jsonPath("$[0].comments[0].authorName").value("Booker"));
+        }
+
+        @Test
+        void shouldListOwnerItemsWithinQueryBudgetRegardlessOfItemCount() throws Exception {
+                LocalDateTime now = LocalDateTime.now();
+                for (int i = 0; i < 3; i++) {
+                        ItemDto itemToCreate = ItemDto.builder().name("Tool " + i).description("Useful tool " + i)
+                                        .available(true).build();
+                        String itemResponse = mockMvc.perform(post("/items")
+                                        .header("X-Sharer-User-Id", userId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(itemToCreate)))
+                                        .andExpect(status().isOk())
+                                        .andReturn().getResponse().getContentAsString();
+                        long itemId = objectMapper.readValue(itemResponse, ItemDto.class).getId();
+
+                        UserDto bookerToCreate = UserDto.builder().name("Booker " + i)
+                                        .email("booker" + i + "@example.com").build();
+                        String bookerResponse = mockMvc.perform(post("/users")
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(bookerToCreate)))
+                                        .andExpect(status().isCreated())
+                                        .andReturn().getResponse().getContentAsString();
+                        long bookerId = objectMapper.readValue(bookerResponse, UserDto.class).getId();
+
+                        createApprovedBooking(bookerId, itemId, now.minusDays(2), now.minusDays(1));
+                        createApprovedBooking(bookerId, itemId, now.plusDays(1), now.plusDays(2));
+                        mockMvc.perform(post("/items/" + itemId + "/comment")
+                                        .header("X-Sharer-User-Id", bookerId)
+                                        .contentType(MediaType.APPLICATION_JSON)
+                                        .content(objectMapper.writeValueAsString(
+                                                        CommentDto.builder().text("Fine " + i).build())))
+                                        .andExpect(status().isOk());
+                }
+
+                mockMvc.perform(get("/items").header("X-Sharer-User-Id", userId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(3))
+                                .andExpect(jsonPath("$[2].comments[0].authorName").value("Booker 2"))
+                                .andExpect(header().exists(QueryStatisticsFilter.TIME_HEADER))
+                                .andExpect(QueryBudget.atMost(4));
+        }
+
+        @Test
+        void shouldAnswerConditionalItemReadsWithNotModified() throws Exception {
+                ItemDto itemToCreate = ItemDto.builder().name("Ladder").description("Tall ladder").available(true)
+                                .build();
+                String itemResponse = mockMvc.perform(post("/items")
+                                .header("X-Sharer-User-Id", userId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(itemToCreate)))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                long itemId = objectMapper.readValue(itemResponse, ItemDto.class).getId();
+
+                UserDto bookerToCreate = UserDto.builder().name("Booker").email("booker@example.com").build();
+                String bookerResponse = mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookerToCreate)))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+                long bookerId = objectMapper.readValue(bookerResponse, UserDto.class).getId();
+
+                String ownerETag = mockMvc.perform(get("/items/" + itemId).header("X-Sharer-User-Id", userId))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+                String bookerETag = mockMvc.perform(get("/items/" + itemId).header("X-Sharer-User-Id", bookerId))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+                assertNotEquals(ownerETag, bookerETag);
+
+                mockMvc.perform(get("/items/" + itemId)
+                                .header("X-Sharer-User-Id", bookerId)
+                                .header(HttpHeaders.IF_NONE_MATCH, bookerETag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(content().string(""))
+                                .andExpect(header().string(HttpHeaders.ETAG, bookerETag))
+                                .andExpect(QueryBudget.atMost(1));
+                mockMvc.perform(get("/items/" + itemId)
+                                .header("X-Sharer-User-Id", userId)
+                                .header(HttpHeaders.IF_NONE_MATCH, ownerETag))
+                                .andExpect(status().isNotModified())
+                                .andExpect(QueryBudget.atMost(3));
+
+                LocalDateTime now = LocalDateTime.now();
+                createApprovedBooking(bookerId, itemId, now.minusDays(2), now.minusDays(1));
+                mockMvc.perform(get("/items/" + itemId)
+                                .header("X-Sharer-User-Id", userId)
+                                .header(HttpHeaders.IF_NONE_MATCH, ownerETag))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.lastBooking.bookerId").value(bookerId));
+                mockMvc.perform(get("/items/" + itemId)
+                                .header("X-Sharer-User-Id", bookerId)
+                                .header(HttpHeaders.IF_NONE_MATCH, bookerETag))
+                                .andExpect(status().isNotModified());
+
+                mockMvc.perform(post("/items/" + itemId + "/comment")
+                                .header("X-Sharer-User-Id", bookerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(CommentDto.builder().text("Sturdy").build())))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/items/" + itemId)
+                                .header("X-Sharer-User-Id", bookerId)
+                                .header(HttpHeaders.IF_NONE_MATCH, bookerETag))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.comments[0].text").value("Sturdy"));
+
+                String commentedETag = mockMvc.perform(get("/items/" + itemId).header("X-Sharer-User-Id", bookerId))
+                                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+                mockMvc.perform(patch("/users/" + bookerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"Renamed\"}"))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/items/" + itemId)
+                                .header("X-Sharer-User-Id", bookerId)
+                                .header(HttpHeaders.IF_NONE_MATCH, commentedETag))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.comments[0].authorName").value("Renamed"));
+        }
+
+        private long createApprovedBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end)
+                        throws Exception {
+                BookingDto bookingToCreate = BookingDto.builder().itemId(itemId).start(start).end(end).build();
+                String response = mockMvc.perform(post("/bookings")
+                                .header("X-Sharer-User-Id", bookerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(bookingToCreate)))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                long bookingId = objectMapper.readValue(response, BookingResponseDto.class).getId();
+
+                mockMvc.perform(patch("/bookings/" + bookingId)
+                                .header("X-Sharer-User-Id", userId)
+                                .param("approved", "true"))
+                                .andExpect(status().isOk());
+                return bookingId;
+        }
+
+        @Test
+        void shouldImportItemsFromNdjsonInChunks() throws Exception {
+                String upload = """
+                                {"name":"Drill","description":"Cordless drill","available":true}
+                                {"name":"Saw","description":"Hand saw","available":false}
+
+                                {"name":"Broken",
+                                {"name":"Ladder","description":"Folding ladder","available":true,"requestId":99}
+                                {"name":"Hammer","description":"Claw hammer","available":true}
+                                """;
+
+                String response = mockMvc.perform(post("/items/bulk")
+                                .header("X-Sharer-User-Id", userId)
+                                .contentType("application/x-ndjson")
+                                .content(upload))
+                                .andExpect(status().isOk())
+                                .andExpect(content().contentType("application/x-ndjson"))
+                                .andReturn().getResponse().getContentAsString();
+
+                String[] results = response.split("\n");
+                assertEquals(5, results.length);
+                assertEquals("{\"line\":1,\"id\":1}", results[0]);
+                assertEquals("{\"line\":2,\"id\":2}", results[1]);
+                assertEquals(4, objectMapper.readTree(results[2]).get("line").asInt());
+                assertEquals("{\"line\":5,\"error\":\"Request not found\"}", results[3]);
+                assertEquals(6, objectMapper.readTree(results[4]).get("line").asInt());
+
+                mockMvc.perform(get("/items").header("X-Sharer-User-Id", userId).param("size", "10"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(3))
+                                .andExpect(jsonPath("$[2].name").value("Hammer"));
+                mockMvc.perform(get("/items/search").param("text", "ladder"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(0));
+        }
+
+        @Test
+        void shouldReportOverLongBulkLineWithoutFailingItsChunk() throws Exception {
+                String upload = "{\"name\":\"Drill\",\"description\":\"Cordless drill\",\"available\":true}\n"
+                                + "{\"name\":\"" + "a".repeat(256)
+                                + "\",\"description\":\"Long name\",\"available\":true}\n"
+                                + "{\"name\":\"Saw\",\"description\":\"" + "b".repeat(513)
+                                + "\",\"available\":true}\n"
+                                + "{\"name\":\"Hammer\",\"description\":\"Claw hammer\",\"available\":true}\n";
+
+                String response = mockMvc.perform(post("/items/bulk")
+                                .header("X-Sharer-User-Id", userId)
+                                .contentType("application/x-ndjson")
+                                .content(upload))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+
+                String[] results = response.split("\n");
+                assertEquals(4, results.length);
+                assertEquals("{\"line\":1,\"id\":1}", results[0]);
+                assertEquals("{\"line\":2,\"error\":\"Name cannot be longer than 255 characters\"}", results[1]);
+                assertEquals("{\"line\":3,\"error\":\"Description cannot be longer than 512 characters\"}",
+                                results[2]);
+                assertEquals("{\"line\":4,\"id\":2}", results[3]);
+        }
+
+        @Test
+        void shouldRejectBulkImportOfUnknownOwner() throws Exception {
+                mockMvc.perform(post("/items/bulk")
+                                .header("X-Sharer-User-Id", 999)
+                                .contentType("application/x-ndjson")
+                                .content("{\"name\":\"Drill\",\"description\":\"Drill\",\"available\":true}\n"))
+                                .andExpect(status().isNotFound())
+                                .andExpect(jsonPath("$.error").value("User not found"));
+        }
 }
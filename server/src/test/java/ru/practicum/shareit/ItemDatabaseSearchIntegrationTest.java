@@ -0,0 +1,53 @@
+package ru.practicum.shareit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@SpringBootTest(properties = "shareit.search.mode=database")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ItemDatabaseSearchIntegrationTest {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Test
+        void shouldFallBackToLikeSearchOnH2() throws Exception {
+                UserDto owner = UserDto.builder().name("Owner").email("search-owner@example.com").build();
+                String ownerResponse = mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(owner)))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+                long ownerId = objectMapper.readValue(ownerResponse, UserDto.class).getId();
+
+                ItemDto saw = ItemDto.builder().name("Circular Saw").description("Cuts boards").available(true)
+                                .build();
+                mockMvc.perform(post("/items")
+                                .header("X-Sharer-User-Id", ownerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(saw)))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(get("/items/search").param("text", "cular"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].name").value("Circular Saw"));
+        }
+}
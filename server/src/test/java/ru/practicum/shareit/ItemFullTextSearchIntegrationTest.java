@@ -0,0 +1,112 @@
+package ru.practicum.shareit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+/**
+ * Runs {@code /items/search} in database mode against an embedded PostgreSQL, where it uses
+ * ranked full-text search over {@code items.search_vector}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql",
+        "shareit.search.mode=database"
+})
+@AutoConfigureMockMvc
+class ItemFullTextSearchIntegrationTest {
+        private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @DynamicPropertySource
+        static void datasource(DynamicPropertyRegistry registry) {
+                registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+                registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+                registry.add("spring.datasource.username", () -> "postgres");
+                registry.add("spring.datasource.password", () -> "postgres");
+        }
+
+        @AfterAll
+        static void stopPostgres() throws IOException {
+                POSTGRES.close();
+        }
+
+        @Test
+        void shouldRankNameMatchesAboveDescriptionMatches() throws Exception {
+                long ownerId = createUser("rank-owner@example.com");
+                createItem(ownerId, "Screwdriver set", "Fits any drill");
+                createItem(ownerId, "Power drill", "Cordless");
+
+                mockMvc.perform(get("/items/search").param("text", "dri"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(2))
+                                .andExpect(jsonPath("$[0].name").value("Power drill"))
+                                .andExpect(jsonPath("$[1].name").value("Screwdriver set"));
+        }
+
+        @Test
+        void shouldMatchWordPrefixesOnly() throws Exception {
+                long ownerId = createUser("prefix-owner@example.com");
+                createItem(ownerId, "Circular Saw", "Cuts boards");
+
+                mockMvc.perform(get("/items/search").param("text", "circ"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$[0].name").value("Circular Saw"));
+
+                mockMvc.perform(get("/items/search").param("text", "cular"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.length()").value(0));
+        }
+
+        private long createUser(String email) throws Exception {
+                UserDto user = UserDto.builder().name("Owner").email(email).build();
+                String response = mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(user)))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+                return objectMapper.readValue(response, UserDto.class).getId();
+        }
+
+        private void createItem(long ownerId, String name, String description) throws Exception {
+                ItemDto item = ItemDto.builder().name(name).description(description).available(true).build();
+                mockMvc.perform(post("/items")
+                                .header("X-Sharer-User-Id", ownerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(item)))
+                                .andExpect(status().isOk());
+        }
+
+        private static EmbeddedPostgres startPostgres() {
+                try {
+                        return EmbeddedPostgres.start();
+                } catch (IOException e) {
+                        throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+                }
+        }
+}
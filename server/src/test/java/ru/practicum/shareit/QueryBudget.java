@@ -0,0 +1,28 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import ru.practicum.shareit.metrics.QueryStatisticsFilter;
+
+/**
+ * MockMvc expectations on the number of JDBC statements a request executed, to catch N+1 regressions.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static ResultMatcher atMost(int statements) {
+        return result -> {
+            String header = result.getResponse().getHeader(QueryStatisticsFilter.COUNT_HEADER);
+            assertNotNull(header, "Response has no " + QueryStatisticsFilter.COUNT_HEADER + " header");
+            int executed = Integer.parseInt(header);
+            assertTrue(executed <= statements, () -> result.getRequest().getMethod() + " "
+                    + result.getRequest().getRequestURI() + " executed " + executed
+                    + " statements, the budget is " + statements);
+        };
+    }
+}
@@ -0,0 +1,224 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingFilter;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRow;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+/**
+ * Runs the repository finders against an embedded PostgreSQL with a seeded dataset and fails when
+ * the plan of any statement they issue contains a sequential scan.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.sql.init.schema-locations=classpath:schema.sql,classpath:schema-postgresql.sql",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.QueryPlanTest$CapturingInspector",
+        "shareit.search.mode=database"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    private static final String SEED = """
+            INSERT INTO users (id, name, email)
+            SELECT g, 'user ' || g, 'user' || g || '@example.com' FROM generate_series(1, 20000) g;
+            INSERT INTO requests (id, description, requester_id, created)
+            SELECT g, 'request ' || g, g % 20000 + 1, now() - g * interval '1 minute' FROM generate_series(1, 5000) g;
+            INSERT INTO items (id, name, description, available, owner_id, request_id)
+            SELECT g, 'item ' || g, 'description of item ' || g, g % 5 <> 0, g % 20000 + 1,
+                   CASE WHEN g % 10 = 0 THEN g % 5000 + 1 END
+            FROM generate_series(1, 100000) g;
+            INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, status)
+            SELECT g, now() + (g % 1000 - 500) * interval '1 day',
+                   now() + (g % 1000 - 500) * interval '1 day' + interval '2 hours',
+                   g * 7 % 100000 + 1, g * 13 % 20000 + 1,
+                   CASE g % 4 WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END
+            FROM generate_series(1, 200000) g;
+            INSERT INTO comments (id, text, item_id, author_id, created)
+            SELECT g, 'comment ' || g, g % 20000 + 1, g % 20000 + 1, now() FROM generate_series(1, 40000) g;
+            ANALYZE;
+            """;
+
+    // Simple query protocol, so that $n placeholders reach the server unbound
+    private final JdbcTemplate explainTemplate = new JdbcTemplate(new SingleConnectionDataSource(
+            POSTGRES.getJdbcUrl("postgres", "postgres") + "&preferQueryMode=simple", true));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @BeforeAll
+    void seed() {
+        jdbcTemplate.execute(SEED);
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        Pageable page = PageRequest.of(0, 10);
+        BookingCursor cursor = new BookingCursor(now.plusDays(100), 100_000L);
+        List<Long> itemIds = List.of(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        // Every state runs the same statement per role, only the number of statuses changes the SQL
+        BookingFilter waiting = BookingFilter.forState("WAITING", now);
+        queries.put("bookings by booker", () -> bookingRepository
+                .findByBooker(1L, BookingFilter.ALL, BookingCursor.FIRST, page));
+        queries.put("bookings by booker and status", () -> bookingRepository
+                .findByBooker(1L, waiting, BookingCursor.FIRST, page));
+        queries.put("current bookings by booker", () -> bookingRepository
+                .findByBooker(1L, BookingFilter.forState("CURRENT", now), BookingCursor.FIRST, page));
+        queries.put("bookings by owner", () -> bookingRepository
+                .findByOwner(1L, BookingFilter.ALL, BookingCursor.FIRST, page));
+        queries.put("bookings by owner and status", () -> bookingRepository
+                .findByOwner(1L, waiting, BookingCursor.FIRST, page));
+        queries.put("current bookings by owner", () -> bookingRepository
+                .findByOwner(1L, BookingFilter.forState("CURRENT", now), BookingCursor.FIRST, page));
+        queries.put("export of bookings by owner", () -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookingRow> rows = bookingRepository.streamExportRowsByOwnerId(1L)) {
+                rows.findFirst();
+            }
+        }));
+        queries.put("bookings by booker after cursor", () -> bookingRepository
+                .findByBooker(1L, BookingFilter.ALL, cursor, page));
+        queries.put("bookings by owner and status after cursor", () -> bookingRepository
+                .findByOwner(1L, waiting, cursor, page));
+        queries.put("completed booking", () -> bookingRepository
+                .findCompletedBooking(1L, 1L, now, BookingStatus.APPROVED));
+        queries.put("approved bookings of item", () -> bookingRepository
+                .findApprovedBookingsByItemId(1L, BookingStatus.APPROVED));
+        queries.put("finished bookings of booker for item", () -> bookingRepository
+                .findByBookerIdAndItemIdAndEndBeforeAndStatus(1L, 1L, now, BookingStatus.APPROVED));
+        queries.put("last booking of item", () -> bookingRepository
+                .findByItemIdAndEndBeforeOrderByEndDescAllStatuses(1L, now, Pageable.ofSize(1)));
+        queries.put("next booking of item", () -> bookingRepository
+                .findByItemIdAndStartAfterOrderByStartAscAllStatuses(1L, now, Pageable.ofSize(1)));
+        queries.put("last approved booking id of item", () -> bookingRepository
+                .findLastApprovedIdByItemId(1L, now, Pageable.ofSize(1)));
+        queries.put("next approved booking id of item", () -> bookingRepository
+                .findNextApprovedIdByItemId(1L, now, Pageable.ofSize(1)));
+        queries.put("booking version", () -> bookingRepository.findVersionVisibleTo(1L, 1L));
+        queries.put("locked status checks of bookings", () -> transactionTemplate.executeWithoutResult(
+                status -> bookingRepository.findStatusChecksByIdIn(List.of(1L, 2L, 3L))));
+        queries.put("last and next bookings of items", () -> bookingRepository
+                .findLastAndNextApprovedByItemIds(itemIds, now));
+        queries.put("blocking bookings of item", () -> bookingRepository
+                .findByItemIdAndStatusInOrderByStartAsc(1L, List.of(BookingStatus.APPROVED, BookingStatus.WAITING)));
+        queries.put("item version", () -> itemRepository.findVersionById(1L));
+        queries.put("items by owner", () -> itemRepository.findByOwnerIdOrderById(1L, page));
+        queries.put("items by request", () -> itemRepository.findByRequestId(1L));
+        queries.put("items by requests", () -> itemRepository.findByRequestIdIn(List.of(1L, 2L, 3L)));
+        queries.put("items by full text", () -> itemRepository.findByFullText("12345:*", page));
+        queries.put("comments by item", () -> commentRepository.findByItemId(1L));
+        queries.put("comments by items", () -> commentRepository.findByItemIdInOrderByCreatedDesc(itemIds));
+        queries.put("requests by requester", () -> itemRequestRepository.findByRequesterIdOrderByCreatedDesc(1L));
+        queries.put("requests of other users", () -> itemRequestRepository
+                .findByRequesterIdNotOrderByCreatedDesc(1L, page));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertNoSequentialScan(query.getValue())));
+    }
+
+    private void assertNoSequentialScan(Runnable query) {
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+
+        for (String sql : new ArrayList<>(CapturingInspector.STATEMENTS)) {
+            String plan = String.join("\n", explainTemplate.queryForList(
+                    "EXPLAIN (GENERIC_PLAN) " + numberParameters(sql), String.class));
+            assertFalse(plan.contains("Seq Scan"), () -> "Sequential scan in plan of\n" + sql + "\n" + plan);
+        }
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ru.practicum.shareit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+@SpringBootTest(properties = "shareit.jpa.second-level-cache.enabled=true")
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class SecondLevelCacheIntegrationTest {
+        @Autowired
+        private MockMvc mockMvc;
+
+        @Autowired
+        private ObjectMapper objectMapper;
+
+        @Autowired
+        private MeterRegistry meterRegistry;
+
+        @Test
+        void shouldServeUsersFromCacheAndRefreshThemOnUpdateAndDelete() throws Exception {
+                long userId = createUser("cached@example.com");
+
+                mockMvc.perform(get("/users/" + userId))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/users/" + userId))
+                                .andExpect(status().isOk())
+                                .andExpect(QueryBudget.atMost(0));
+
+                mockMvc.perform(patch("/users/" + userId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"name\":\"Renamed\"}"))
+                                .andExpect(status().isOk());
+                mockMvc.perform(get("/users/" + userId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.name").value("Renamed"))
+                                .andExpect(QueryBudget.atMost(0));
+
+                mockMvc.perform(delete("/users/" + userId))
+                                .andExpect(status().isNoContent());
+                mockMvc.perform(get("/users/" + userId))
+                                .andExpect(status().isNotFound());
+
+                FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                                .tag("region", "users")
+                                .tag("result", "hit")
+                                .functionCounter();
+                assertTrue(hits != null && hits.count() >= 2);
+        }
+
+        @Test
+        void shouldRefreshCachedItemOnUpdate() throws Exception {
+                long ownerId = createUser("owner@example.com");
+                ItemDto item = ItemDto.builder().name("Kayak").description("Single kayak").available(true).build();
+                String response = mockMvc.perform(post("/items")
+                                .header("X-Sharer-User-Id", ownerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(item)))
+                                .andExpect(status().isOk())
+                                .andReturn().getResponse().getContentAsString();
+                long itemId = objectMapper.readValue(response, ItemDto.class).getId();
+
+                mockMvc.perform(patch("/items/" + itemId)
+                                .header("X-Sharer-User-Id", ownerId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"available\":false}"))
+                                .andExpect(status().isOk());
+
+                mockMvc.perform(get("/items/" + itemId).header("X-Sharer-User-Id", ownerId))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.available").value(false));
+        }
+
+        private long createUser(String email) throws Exception {
+                UserDto user = UserDto.builder().name("User").email(email).build();
+                String response = mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(user)))
+                                .andExpect(status().isCreated())
+                                .andReturn().getResponse().getContentAsString();
+                return objectMapper.readValue(response, UserDto.class).getId();
+        }
+}
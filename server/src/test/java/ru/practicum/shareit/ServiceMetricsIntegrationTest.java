@@ -0,0 +1,82 @@
+package ru.practicum.shareit;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ru.practicum.shareit.metrics.ServiceMetricsAspect;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ServiceMetricsIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldTimeBookingListByStateAndOutcome() throws Exception {
+        mockMvc.perform(get("/bookings/owner")
+                .header("X-Sharer-User-Id", 999L)
+                .param("state", "past"))
+                .andExpect(status().isNotFound());
+
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.TIMER)
+                .tag("class", "BookingServiceImpl")
+                .tag("method", "getBookingsByOwner")
+                .tag("state", "PAST")
+                .tag("outcome", "not_found")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void shouldTimeOtherServiceMethodsWithoutState() throws Exception {
+        mockMvc.perform(post("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"name\":\"Metered\",\"email\":\"metered@example.com\"}"))
+                .andExpect(status().isCreated());
+
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.TIMER)
+                .tag("class", "UserServiceImpl")
+                .tag("method", "createUser")
+                .tag("state", "none")
+                .tag("outcome", "ok")
+                .timer();
+        assertNotNull(timer);
+    }
+
+    @Test
+    void shouldExportHistogramInPrometheusFormat() throws Exception {
+        mockMvc.perform(get("/bookings")
+                .header("X-Sharer-User-Id", 999L)
+                .param("state", "unknown"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "shareit_service_seconds_bucket{class=\"BookingServiceImpl\",method=\"getBookingsByUser\","
+                                + "outcome=\"not_found\",state=\"ALL\"")));
+    }
+}
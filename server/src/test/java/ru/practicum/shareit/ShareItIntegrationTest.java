@@ -62,7 +62,8 @@ class ShareItIntegrationTest {
                 mockMvc.perform(get("/items/search")
                                 .param("text", "drill"))
                                 .andExpect(status().isOk())
-                                .andExpect(jsonPath("$[0].name").value("Drill"));
+                                .andExpect(jsonPath("$[0].name").value("Drill"))
+                                .andExpect(QueryBudget.atMost(0));
 
                 mockMvc.perform(get("/items/search")
                                 .param("text", "construction"))
@@ -1,6 +1,8 @@
 package ru.practicum.shareit;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -48,4 +50,64 @@ class UserControllerIntegrationTest {
                                 .andExpect(jsonPath("$.id").value(createdUser.getId()))
                                 .andExpect(jsonPath("$.email").value("test@example.com"));
         }
+
+        @Test
+        void shouldValidateCallerWithoutLoadingUser() throws Exception {
+                UserDto userToCreate = UserDto.builder().name("Booker").email("booker@example.com").build();
+                MvcResult result = mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(userToCreate)))
+                                .andExpect(status().isCreated())
+                                .andReturn();
+                long userId = objectMapper.readValue(result.getResponse().getContentAsString(), UserDto.class).getId();
+
+                mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", userId))
+                                .andExpect(status().isOk())
+                                .andExpect(QueryBudget.atMost(1));
+                mockMvc.perform(get("/requests/all").header("X-Sharer-User-Id", userId))
+                                .andExpect(status().isOk())
+                                .andExpect(QueryBudget.atMost(1));
+
+                mockMvc.perform(delete("/users/" + userId))
+                                .andExpect(status().isNoContent());
+                mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", userId))
+                                .andExpect(status().isNotFound());
+        }
+
+        @Test
+        void shouldRejectDuplicateEmailOnCreate() throws Exception {
+                UserDto first = UserDto.builder().name("First").email("duplicate@example.com").build();
+                UserDto second = UserDto.builder().name("Second").email("duplicate@example.com").build();
+
+                mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(first)))
+                                .andExpect(status().isCreated());
+                mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(second)))
+                                .andExpect(status().isConflict());
+        }
+
+        @Test
+        void shouldRejectDuplicateEmailOnUpdate() throws Exception {
+                UserDto taken = UserDto.builder().name("Taken").email("taken@example.com").build();
+                UserDto other = UserDto.builder().name("Other").email("other@example.com").build();
+
+                mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(taken)))
+                                .andExpect(status().isCreated());
+                MvcResult result = mockMvc.perform(post("/users")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(other)))
+                                .andExpect(status().isCreated())
+                                .andReturn();
+                long otherId = objectMapper.readValue(result.getResponse().getContentAsString(), UserDto.class).getId();
+
+                mockMvc.perform(patch("/users/" + otherId)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"email\":\"taken@example.com\"}"))
+                                .andExpect(status().isConflict());
+        }
 }
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+class BookingFilterTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 12, 0);
+
+    @Test
+    void shouldMatchCurrentBookingsIncludingBounds() {
+        BookingFilter current = BookingFilter.forState("current", NOW);
+
+        assertTrue(matches(current, BookingStatus.APPROVED, NOW.minusHours(1), NOW.plusHours(1)));
+        assertTrue(matches(current, BookingStatus.WAITING, NOW, NOW));
+        assertFalse(matches(current, BookingStatus.APPROVED, NOW.minusHours(2), NOW.minusHours(1)));
+        assertFalse(matches(current, BookingStatus.APPROVED, NOW.plusHours(1), NOW.plusHours(2)));
+    }
+
+    @Test
+    void shouldMatchPastAndFutureBookingsStrictly() {
+        BookingFilter past = BookingFilter.forState("PAST", NOW);
+        BookingFilter future = BookingFilter.forState("FUTURE", NOW);
+
+        assertTrue(matches(past, BookingStatus.REJECTED, NOW.minusHours(2), NOW.minusHours(1)));
+        assertFalse(matches(past, BookingStatus.APPROVED, NOW.minusHours(2), NOW));
+        assertTrue(matches(future, BookingStatus.CANCELED, NOW.plusHours(1), NOW.plusHours(2)));
+        assertFalse(matches(future, BookingStatus.APPROVED, NOW, NOW.plusHours(2)));
+    }
+
+    @Test
+    void shouldMatchStatusStatesAtAnyTime() {
+        BookingFilter waiting = BookingFilter.forState("WAITING", NOW);
+
+        assertTrue(matches(waiting, BookingStatus.WAITING, NOW.minusYears(1), NOW.minusYears(1).plusDays(1)));
+        assertTrue(matches(waiting, BookingStatus.WAITING, NOW.plusYears(1), NOW.plusYears(1).plusDays(1)));
+        assertFalse(matches(waiting, BookingStatus.APPROVED, NOW.plusDays(1), NOW.plusDays(2)));
+        assertFalse(matches(BookingFilter.forState("REJECTED", NOW), BookingStatus.WAITING, NOW, NOW));
+    }
+
+    @Test
+    void shouldTreatUnknownStateAsAll() {
+        assertEquals(BookingFilter.ALL, BookingFilter.forState("ALL", NOW));
+        assertEquals(BookingFilter.ALL, BookingFilter.forState("UNKNOWN", NOW));
+        for (BookingStatus status : BookingStatus.values()) {
+            assertTrue(matches(BookingFilter.ALL, status, NOW.minusYears(5), NOW.plusYears(5)));
+        }
+    }
+
+    // Same bounds as BookingRepository.FILTER_BEFORE_CURSOR
+    private static boolean matches(BookingFilter filter, BookingStatus status, LocalDateTime start,
+            LocalDateTime end) {
+        return filter.statuses().contains(status)
+                && start.isAfter(filter.startAfter())
+                && !start.isAfter(filter.startUntil())
+                && !end.isBefore(filter.endFrom())
+                && end.isBefore(filter.endBefore());
+    }
+}
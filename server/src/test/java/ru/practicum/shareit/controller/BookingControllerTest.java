@@ -5,10 +5,12 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -26,9 +28,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.BookingCursor;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusBatchDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResult;
+import ru.practicum.shareit.booking.export.BookingExporter;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -45,6 +51,9 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingExporter bookingExporter;
+
     private BookingDto bookingDto;
     private BookingResponseDto bookingResponseDto;
     private final long userId = 1L;
@@ -151,6 +160,24 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.status").value("REJECTED"));
     }
 
+    @Test
+    void shouldUpdateBookingStatusesInBatch() throws Exception {
+        when(bookingService.updateBookingStatuses(userId, List.of(1L, 2L), true))
+                .thenReturn(List.of(BookingStatusResult.updated(1L, BookingStatus.APPROVED),
+                        BookingStatusResult.failed(2L, "Booking not found")));
+
+        mockMvc.perform(patch("/bookings/batch")
+                .header("X-Sharer-User-Id", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        BookingStatusBatchDto.builder().ids(List.of(1L, 2L)).approved(true).build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].id").value(2))
+                .andExpect(jsonPath("$[1].error").value("Booking not found"));
+    }
+
     @Test
     void shouldGetBookingById() throws Exception {
         when(bookingService.getBookingById(anyLong(), anyLong()))
@@ -210,4 +237,40 @@ class BookingControllerTest {
                 .header("X-Sharer-User-Id", userId))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void shouldReturnNextCursorWhenKeysetPageIsFull() throws Exception {
+        when(bookingService.getBookingsByOwner(eq(userId), eq("ALL"), eq(BookingCursor.FIRST), eq(1)))
+                .thenReturn(List.of(bookingResponseDto));
+
+        mockMvc.perform(get("/bookings/owner")
+                .header("X-Sharer-User-Id", userId)
+                .param("after", "")
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(header().string(BookingCursor.NEXT_CURSOR_HEADER,
+                        new BookingCursor(bookingResponseDto.getStart(), 1L).encode()));
+    }
+
+    @Test
+    void shouldNotReturnNextCursorOnLastKeysetPage() throws Exception {
+        BookingCursor after = new BookingCursor(LocalDateTime.of(2030, 1, 1, 12, 0), 5L);
+        when(bookingService.getBookingsByUser(userId, "ALL", after, 10))
+                .thenReturn(List.of(bookingResponseDto));
+
+        mockMvc.perform(get("/bookings")
+                .header("X-Sharer-User-Id", userId)
+                .param("after", after.encode()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(BookingCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() throws Exception {
+        mockMvc.perform(get("/bookings")
+                .header("X-Sharer-User-Id", userId)
+                .param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
 }
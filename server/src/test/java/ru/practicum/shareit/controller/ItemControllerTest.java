@@ -27,7 +27,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.bulk.ItemBulkImporter;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.servece.ItemService;
@@ -44,6 +46,9 @@ class ItemControllerTest {
         @MockBean
         private ItemService itemService;
 
+        @MockBean
+        private ItemBulkImporter itemBulkImporter;
+
         private ItemDto itemDto;
         private ItemWithBookingDto itemWithBookingDto;
         private CommentDto commentDto;
@@ -165,4 +170,20 @@ class ItemControllerTest {
                                 .content(objectMapper.writeValueAsString(newComment)))
                                 .andExpect(status().isBadRequest());
         }
+
+        @Test
+        void shouldGetAvailability() throws Exception {
+                LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+                LocalDateTime to = from.plusDays(1);
+                ItemAvailabilityDto availability = ItemAvailabilityDto.builder().itemId(1L).from(from).to(to)
+                                .free(true).freeWindows(List.of(new ItemAvailabilityDto.Window(from, to))).build();
+                when(itemService.getAvailability(1L, from, to)).thenReturn(availability);
+
+                mockMvc.perform(get("/items/1/availability")
+                                .param("from", "2030-01-01T10:00:00")
+                                .param("to", "2030-01-02T10:00:00"))
+                                .andExpect(status().isOk())
+                                .andExpect(jsonPath("$.free").value(true))
+                                .andExpect(jsonPath("$.freeWindows[0].end").value("2030-01-02T10:00:00"));
+        }
 }
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class DatabaseItemSearchTest {
+
+    @Test
+    void shouldBuildPrefixQueryFromWords() {
+        assertEquals("power:* & dri:*", DatabaseItemSearch.toPrefixQuery("Power  DRI"));
+        assertEquals("drill:* & 2000:*", DatabaseItemSearch.toPrefixQuery("drill & | 2000!"));
+        assertEquals("", DatabaseItemSearch.toPrefixQuery(" :*& "));
+    }
+}
@@ -3,16 +3,21 @@ package ru.practicum.shareit.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,18 +28,27 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingFilter;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.dto.BookingStatusResult;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingRow;
+import ru.practicum.shareit.booking.repository.BookingStatusCheck;
+import ru.practicum.shareit.booking.repository.BookingVersion;
 import ru.practicum.shareit.booking.service.impl.BookingServiceImpl;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceTest {
@@ -45,9 +59,15 @@ class BookingServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserExistenceChecker userExistenceChecker;
+
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -55,6 +75,7 @@ class BookingServiceTest {
     private User owner;
     private Item item;
     private Booking booking;
+    private BookingRow bookingRow;
     private BookingDto bookingDto;
 
     @BeforeEach
@@ -69,6 +90,7 @@ class BookingServiceTest {
         booking = Booking.builder().id(1L).start(start).end(end).item(item).booker(user).status(BookingStatus.WAITING)
                 .build();
         bookingDto = BookingDto.builder().itemId(1L).start(start).end(end).build();
+        bookingRow = new BookingRow(1L, start, end, BookingStatus.WAITING, 1L, "Drill", 1L, "John Doe");
     }
 
     @Test
@@ -82,6 +104,7 @@ class BookingServiceTest {
         assertNotNull(result);
         assertEquals(BookingStatus.WAITING, result.getStatus());
         verify(bookingRepository).save(any(Booking.class));
+        verify(itemAvailabilityIndex).onBookingChanged(booking);
     }
 
     @Test
@@ -161,8 +184,8 @@ class BookingServiceTest {
 
     @Test
     void shouldUpdateBookingStatus() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenAnswer(i -> i.getArgument(0));
+        when(bookingRepository.findWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(1L, BookingStatus.APPROVED)).thenReturn(1);
 
         BookingResponseDto result = bookingService.updateBookingStatus(2L, 1L, true);
 
@@ -172,8 +195,8 @@ class BookingServiceTest {
 
     @Test
     void shouldRejectBookingStatus() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenAnswer(i -> i.getArgument(0));
+        when(bookingRepository.findWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(1L, BookingStatus.REJECTED)).thenReturn(1);
 
         BookingResponseDto result = bookingService.updateBookingStatus(2L, 1L, false);
 
@@ -181,9 +204,19 @@ class BookingServiceTest {
         assertEquals(BookingStatus.REJECTED, result.getStatus());
     }
 
+    @Test
+    void shouldThrowConflictExceptionWhenBookingStatusChangedConcurrently() {
+        when(bookingRepository.findWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateStatusIfWaiting(1L, BookingStatus.APPROVED)).thenReturn(0);
+
+        ConflictException exception = assertThrows(ConflictException.class,
+                () -> bookingService.updateBookingStatus(2L, 1L, true));
+        assertEquals("Booking status was changed concurrently", exception.getMessage());
+    }
+
     @Test
     void shouldThrowNotFoundExceptionWhenUpdatingNonExistentBooking() {
-        when(bookingRepository.findById(99L)).thenReturn(Optional.empty());
+        when(bookingRepository.findWithItemAndBookerById(99L)).thenReturn(Optional.empty());
 
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> bookingService.updateBookingStatus(2L, 99L, true));
@@ -192,7 +225,7 @@ class BookingServiceTest {
 
     @Test
     void shouldNotUpdateBookingStatusWhenNotOwner() {
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        when(bookingRepository.findWithItemAndBookerById(1L)).thenReturn(Optional.of(booking));
 
         ForbiddenException exception = assertThrows(ForbiddenException.class,
                 () -> bookingService.updateBookingStatus(1L, 1L, true)); // user is not owner
@@ -210,13 +243,43 @@ class BookingServiceTest {
                 .status(BookingStatus.APPROVED) // уже подтверждено
                 .build();
 
-        when(bookingRepository.findById(1L)).thenReturn(Optional.of(approvedBooking));
+        when(bookingRepository.findWithItemAndBookerById(1L)).thenReturn(Optional.of(approvedBooking));
 
         ValidationException exception = assertThrows(ValidationException.class,
                 () -> bookingService.updateBookingStatus(2L, 1L, true));
         assertEquals("Booking status can only be changed from WAITING", exception.getMessage());
     }
 
+    @Test
+    void shouldUpdateBookingStatusesAndReportEachId() {
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        when(bookingRepository.findStatusChecksByIdIn(any())).thenReturn(List.of(
+                new BookingStatusCheck(1L, 1L, 2L, BookingStatus.WAITING, start, end),
+                new BookingStatusCheck(2L, 1L, 2L, BookingStatus.APPROVED, start, end),
+                new BookingStatusCheck(3L, 5L, 3L, BookingStatus.WAITING, start, end)));
+        when(bookingRepository.updateStatusesIfWaiting(List.of(1L), BookingStatus.APPROVED)).thenReturn(1);
+
+        List<BookingStatusResult> results = bookingService.updateBookingStatuses(2L, List.of(3L, 1L, 99L, 2L, 1L),
+                true);
+
+        assertEquals(List.of(
+                BookingStatusResult.failed(3L, "Only item owner can update booking status"),
+                BookingStatusResult.updated(1L, BookingStatus.APPROVED),
+                BookingStatusResult.failed(99L, "Booking not found"),
+                BookingStatusResult.failed(2L, "Booking status can only be changed from WAITING")), results);
+        verify(itemAvailabilityIndex).onBookingChanged(1L, 1L, start, end, BookingStatus.APPROVED);
+        verify(bookingRepository).findStatusChecksByIdIn(any());
+    }
+
+    @Test
+    void shouldNotUpdateBookingStatusesForUnknownUser() {
+        doThrow(new NotFoundException("User not found")).when(userExistenceChecker).requireExists(99L);
+
+        assertThrows(NotFoundException.class, () -> bookingService.updateBookingStatuses(99L, List.of(1L), true));
+        verify(bookingRepository, never()).updateStatusesIfWaiting(any(), any());
+    }
+
     @Test
     void shouldGetBookingById() {
         when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
@@ -255,11 +318,24 @@ class BookingServiceTest {
         assertEquals("User can only view their own bookings or bookings for their items", exception.getMessage());
     }
 
+    @Test
+    void shouldBuildBookingETagFromBookingItemAndBookerVersions() {
+        when(bookingRepository.findVersionVisibleTo(1L, 1L)).thenReturn(Optional.of(new BookingVersion(2L, 4L, 1L)));
+
+        assertEquals("2-4-1", bookingService.getBookingETag(1L, 1L));
+    }
+
+    @Test
+    void shouldReturnNoBookingETagForOtherUser() {
+        when(bookingRepository.findVersionVisibleTo(1L, 99L)).thenReturn(Optional.empty());
+
+        assertNull(bookingService.getBookingETag(99L, 1L));
+    }
+
     @Test
     void shouldGetUserBookings() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdOrderByStartDesc(eq(1L), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker(eq(1L), stateFilter("ALL"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(1L, "ALL", 0, 10);
 
@@ -269,7 +345,7 @@ class BookingServiceTest {
 
     @Test
     void shouldThrowNotFoundExceptionWhenGettingBookingsForNonExistentUser() {
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("User not found")).when(userExistenceChecker).requireExists(99L);
 
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> bookingService.getBookingsByUser(99L, "ALL", 0, 10));
@@ -278,9 +354,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetUserBookingsWithCurrentState() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndCurrentOrderByStartDesc(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker(eq(1L), stateFilter("CURRENT"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(1L, "CURRENT", 0, 10);
 
@@ -290,9 +365,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetUserBookingsWithPastState() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndPastOrderByStartDesc(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker(eq(1L), stateFilter("PAST"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(1L, "PAST", 0, 10);
 
@@ -302,9 +376,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetUserBookingsWithFutureState() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndFutureOrderByStartDesc(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker(eq(1L), stateFilter("FUTURE"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(1L, "FUTURE", 0, 10);
 
@@ -314,10 +387,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetUserBookingsWithWaitingState() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(eq(1L), eq(BookingStatus.WAITING),
-                any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker(eq(1L), stateFilter("WAITING"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(1L, "WAITING", 0, 10);
 
@@ -327,10 +398,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetUserBookingsWithRejectedState() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(eq(1L), eq(BookingStatus.REJECTED),
-                any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker(eq(1L), stateFilter("REJECTED"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(1L, "REJECTED", 0, 10);
 
@@ -340,9 +409,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetUserBookingsWithUnknownState() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdOrderByStartDesc(eq(1L), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByBooker(eq(1L), stateFilter("ALL"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(1L, "UNKNOWN", 0, 10);
 
@@ -352,9 +420,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetOwnerBookings() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_OwnerIdOrderByStartDesc(eq(2L), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByOwner(eq(2L), stateFilter("ALL"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(2L, "ALL", 0, 10);
 
@@ -364,7 +431,7 @@ class BookingServiceTest {
 
     @Test
     void shouldThrowNotFoundExceptionWhenGettingOwnerBookingsForNonExistentUser() {
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("User not found")).when(userExistenceChecker).requireExists(99L);
 
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> bookingService.getBookingsByOwner(99L, "ALL", 0, 10));
@@ -373,9 +440,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetOwnerBookingsWithCurrentState() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_OwnerIdAndCurrentOrderByStartDesc(eq(2L), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByOwner(eq(2L), stateFilter("CURRENT"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(2L, "CURRENT", 0, 10);
 
@@ -385,9 +451,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetOwnerBookingsWithPastState() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_OwnerIdAndPastOrderByStartDesc(eq(2L), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByOwner(eq(2L), stateFilter("PAST"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(2L, "PAST", 0, 10);
 
@@ -397,9 +462,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetOwnerBookingsWithFutureState() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_OwnerIdAndFutureOrderByStartDesc(eq(2L), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByOwner(eq(2L), stateFilter("FUTURE"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(2L, "FUTURE", 0, 10);
 
@@ -409,10 +473,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetOwnerBookingsWithWaitingState() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_OwnerIdAndStatusOrderByStartDesc(eq(2L), eq(BookingStatus.WAITING),
-                any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByOwner(eq(2L), stateFilter("WAITING"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(2L, "WAITING", 0, 10);
 
@@ -422,10 +484,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetOwnerBookingsWithRejectedState() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_OwnerIdAndStatusOrderByStartDesc(eq(2L), eq(BookingStatus.REJECTED),
-                any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByOwner(eq(2L), stateFilter("REJECTED"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(2L, "REJECTED", 0, 10);
 
@@ -435,9 +495,8 @@ class BookingServiceTest {
 
     @Test
     void shouldGetOwnerBookingsWithUnknownState() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_OwnerIdOrderByStartDesc(eq(2L), any(Pageable.class)))
-                .thenReturn(List.of(booking));
+        when(bookingRepository.findByOwner(eq(2L), stateFilter("ALL"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(2L, "UNKNOWN", 0, 10);
 
@@ -447,8 +506,7 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyListWhenNoUserBookings() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerIdOrderByStartDesc(eq(1L), any(Pageable.class)))
+        when(bookingRepository.findByBooker(eq(1L), stateFilter("ALL"), eq(BookingCursor.FIRST), any(Pageable.class)))
                 .thenReturn(List.of());
 
         List<BookingResponseDto> result = bookingService.getBookingsByUser(1L, "ALL", 0, 10);
@@ -458,12 +516,49 @@ class BookingServiceTest {
 
     @Test
     void shouldReturnEmptyListWhenNoOwnerBookings() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItem_OwnerIdOrderByStartDesc(eq(2L), any(Pageable.class)))
+        when(bookingRepository.findByOwner(eq(2L), stateFilter("ALL"), eq(BookingCursor.FIRST), any(Pageable.class)))
                 .thenReturn(List.of());
 
         List<BookingResponseDto> result = bookingService.getBookingsByOwner(2L, "ALL", 0, 10);
 
         assertTrue(result.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetUserBookingsAfterCursor() {
+        BookingCursor after = new BookingCursor(LocalDateTime.of(2030, 1, 1, 12, 0), 5L);
+        when(bookingRepository.findByBooker(eq(1L), stateFilter("FUTURE"), eq(after), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
+
+        List<BookingResponseDto> result = bookingService.getBookingsByUser(1L, "FUTURE", after, 10);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void shouldGetOwnerBookingsFromFirstCursor() {
+        when(bookingRepository.findByOwner(eq(2L), stateFilter("WAITING"), eq(BookingCursor.FIRST), any(Pageable.class)))
+                .thenReturn(List.of(bookingRow));
+
+        List<BookingResponseDto> result = bookingService.getBookingsByOwner(2L, "WAITING", BookingCursor.FIRST, 10);
+
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void shouldThrowNotFoundExceptionWhenGettingOwnerBookingsAfterCursorForNonExistentUser() {
+        doThrow(new NotFoundException("User not found")).when(userExistenceChecker).requireExists(99L);
+
+        assertThrows(NotFoundException.class,
+                () -> bookingService.getBookingsByOwner(99L, "ALL", BookingCursor.FIRST, 10));
+    }
+
+    /**
+     * Matches the filter of a state whatever time the service took as now.
+     */
+    private static BookingFilter stateFilter(String state) {
+        return argThat(filter -> Stream.of(filter.startAfter(), filter.startUntil(), filter.endFrom(),
+                        filter.endBefore())
+                .anyMatch(now -> filter.equals(BookingFilter.forState(state, now))));
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.model.Item;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ItemAvailabilityIndex index;
+
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemAvailabilityIndex(bookingRepository, 100, Duration.ofMinutes(10));
+        item = Item.builder().id(1L).build();
+        when(bookingRepository.findByItemIdAndStatusInOrderByStartAsc(1L,
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING)))
+                .thenReturn(List.of(
+                        booking(1L, 2, 4, BookingStatus.APPROVED),
+                        booking(2L, 3, 5, BookingStatus.WAITING),
+                        booking(3L, 10, 12, BookingStatus.APPROVED)));
+    }
+
+    @Test
+    void shouldAnswerOverlapQueries() {
+        assertTrue(index.isFree(1L, DAY, DAY.plusDays(2)));
+        assertFalse(index.isFree(1L, DAY.plusDays(4), DAY.plusDays(6)));
+        assertTrue(index.isFree(1L, DAY.plusDays(5), DAY.plusDays(10)));
+        assertFalse(index.isFree(1L, DAY.plusDays(11), DAY.plusDays(11).plusHours(1)));
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInOrderByStartAsc(1L,
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING));
+    }
+
+    @Test
+    void shouldListFreeWindowsBetweenMergedIntervals() {
+        List<ItemAvailabilityDto.Window> windows = index.freeWindows(1L, DAY.plusDays(1), DAY.plusDays(11));
+
+        assertEquals(List.of(window(1, 2), window(5, 10)), windows);
+    }
+
+    @Test
+    void shouldApplyBookingChangesToLoadedItem() {
+        assertFalse(index.isFree(1L, DAY.plusDays(4), DAY.plusDays(5)));
+
+        index.onBookingChanged(booking(2L, 3, 5, BookingStatus.REJECTED));
+        index.onBookingChanged(booking(4L, 6, 7, BookingStatus.WAITING));
+
+        assertTrue(index.isFree(1L, DAY.plusDays(4), DAY.plusDays(5)));
+        assertEquals(List.of(window(0, 2), window(4, 6), window(7, 10)), index.freeWindows(1L, DAY,
+                DAY.plusDays(10)));
+    }
+
+    @Test
+    void shouldApplyBookingChangeCommittedWhileItemIsLoading() {
+        when(bookingRepository.findByItemIdAndStatusInOrderByStartAsc(1L,
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING)))
+                .thenAnswer(invocation -> {
+                    index.onBookingChanged(booking(4L, 6, 7, BookingStatus.APPROVED));
+                    return List.of(booking(1L, 2, 4, BookingStatus.APPROVED));
+                });
+
+        assertTrue(index.isFree(1L, DAY.plusDays(5), DAY.plusDays(6)));
+        assertFalse(index.isFree(1L, DAY.plusDays(6), DAY.plusDays(7)));
+    }
+
+    @Test
+    void shouldLoadAgainAfterFailedLoad() {
+        when(bookingRepository.findByItemIdAndStatusInOrderByStartAsc(1L,
+                List.of(BookingStatus.APPROVED, BookingStatus.WAITING)))
+                .thenThrow(new IllegalStateException("Database is down"))
+                .thenReturn(List.of(booking(1L, 2, 4, BookingStatus.APPROVED)));
+
+        assertThrows(IllegalStateException.class, () -> index.isFree(1L, DAY, DAY.plusDays(1)));
+        assertFalse(index.isFree(1L, DAY.plusDays(2), DAY.plusDays(3)));
+    }
+
+    private Booking booking(Long id, int startDay, int endDay, BookingStatus status) {
+        return Booking.builder().id(id).item(item).start(DAY.plusDays(startDay)).end(DAY.plusDays(endDay))
+                .status(status).build();
+    }
+
+    private static ItemAvailabilityDto.Window window(int startDay, int endDay) {
+        return new ItemAvailabilityDto.Window(DAY.plusDays(startDay), DAY.plusDays(endDay));
+    }
+}
@@ -4,8 +4,15 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
@@ -29,6 +36,7 @@ import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.request.service.impl.ItemRequestServiceImpl;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
 @ExtendWith(MockitoExtension.class)
 class ItemRequestServiceImplTest {
@@ -39,6 +47,9 @@ class ItemRequestServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserExistenceChecker userExistenceChecker;
+
     @Mock
     private ItemRepository itemRepository;
 
@@ -99,9 +110,8 @@ class ItemRequestServiceImplTest {
 
     @Test
     void shouldGetItemRequestsByUser() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(1L)).thenReturn(List.of(itemRequest));
-        when(itemRepository.findByRequestId(1L)).thenReturn(List.of(item));
+        when(itemRepository.findByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
 
         List<ItemRequestDto> result = itemRequestService.getRequestsByUser(1L);
 
@@ -113,10 +123,9 @@ class ItemRequestServiceImplTest {
 
     @Test
     void shouldGetAllItemRequestsPaginated() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(otherUser));
         when(itemRequestRepository.findByRequesterIdNotOrderByCreatedDesc(eq(2L), any(Pageable.class)))
                 .thenReturn(List.of(itemRequest));
-        when(itemRepository.findByRequestId(1L)).thenReturn(List.of(item));
+        when(itemRepository.findByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
 
         List<ItemRequestDto> result = itemRequestService.getAllRequests(2L, 0, 10);
 
@@ -126,9 +135,56 @@ class ItemRequestServiceImplTest {
         assertEquals(1, result.get(0).getItems().size());
     }
 
+    @Test
+    void shouldLoadItemsOfAllRequestsInOneQuery() {
+        ItemRequest secondRequest = ItemRequest.builder()
+                .id(2L)
+                .description("Need a saw")
+                .requester(user)
+                .created(LocalDateTime.now().minusDays(1))
+                .build();
+        ItemRequest emptyRequest = ItemRequest.builder()
+                .id(3L)
+                .description("Need a ladder")
+                .requester(user)
+                .created(LocalDateTime.now().minusDays(2))
+                .build();
+        Item saw = Item.builder()
+                .id(2L)
+                .name("Saw")
+                .description("Sharp saw")
+                .available(true)
+                .owner(otherUser)
+                .request(secondRequest)
+                .build();
+
+        when(itemRequestRepository.findByRequesterIdOrderByCreatedDesc(1L))
+                .thenReturn(List.of(itemRequest, secondRequest, emptyRequest));
+        when(itemRepository.findByRequestIdIn(List.of(1L, 2L, 3L))).thenReturn(List.of(item, saw));
+
+        List<ItemRequestDto> result = itemRequestService.getRequestsByUser(1L);
+
+        assertEquals(3, result.size());
+        assertEquals("Drill", result.get(0).getItems().get(0).getName());
+        assertEquals("Saw", result.get(1).getItems().get(0).getName());
+        assertTrue(result.get(2).getItems().isEmpty());
+        verify(itemRepository, times(1)).findByRequestIdIn(anyCollection());
+        verify(itemRepository, never()).findByRequestId(anyLong());
+    }
+
+    @Test
+    void shouldNotQueryItemsWhenThereAreNoRequests() {
+        when(itemRequestRepository.findByRequesterIdNotOrderByCreatedDesc(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        List<ItemRequestDto> result = itemRequestService.getAllRequests(2L, 0, 10);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(itemRepository);
+    }
+
     @Test
     void shouldGetItemRequestById() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(otherUser));
         when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(itemRequest));
         when(itemRepository.findByRequestId(1L)).thenReturn(List.of(item));
 
@@ -141,7 +197,6 @@ class ItemRequestServiceImplTest {
 
     @Test
     void shouldThrowNotFoundExceptionWhenRequestNotFound() {
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
         when(itemRequestRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class,
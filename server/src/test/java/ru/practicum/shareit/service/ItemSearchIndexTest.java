@@ -0,0 +1,107 @@
+package ru.practicum.shareit.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findByAvailableTrue()).thenReturn(List.of(
+                Item.builder().id(1L).name("Power Drill").description("Cordless drill").available(true).build(),
+                Item.builder().id(2L).name("Hammer").description("Heavy construction hammer").available(true)
+                        .build(),
+                Item.builder().id(3L).name("Hand drill").description("Manual").available(true).build()));
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void shouldFindBySubstringIgnoringCase() {
+        List<ItemDto> found = itemSearchIndex.search("DRIL", 0, 10);
+
+        assertEquals(List.of(1L, 3L), found.stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void shouldSearchDescriptionAndShortQueries() {
+        assertEquals(2L, itemSearchIndex.search("construct", 0, 10).get(0).getId());
+        assertEquals(3, itemSearchIndex.search("r", 0, 10).size());
+    }
+
+    @Test
+    void shouldNotMatchAcrossNameAndDescription() {
+        assertTrue(itemSearchIndex.search("drillcordless", 0, 10).isEmpty());
+        assertTrue(itemSearchIndex.search("ill man", 0, 10).isEmpty());
+    }
+
+    @Test
+    void shouldPageOverSortedPostings() {
+        List<ItemDto> page = itemSearchIndex.search("drill", 1, 1);
+
+        assertEquals(1, page.size());
+        assertEquals(3L, page.get(0).getId());
+    }
+
+    @Test
+    void shouldUpdateAndRemoveIncrementally() {
+        itemSearchIndex.index(ItemDto.builder().id(2L).name("Sledge").description("Big").available(true).build());
+        itemSearchIndex.index(ItemDto.builder().id(3L).name("Hand drill").description("Manual").available(false)
+                .build());
+        itemSearchIndex.index(ItemDto.builder().id(4L).name("Drill press").description("Bench").available(true)
+                .build());
+
+        assertTrue(itemSearchIndex.search("hammer", 0, 10).isEmpty());
+        assertEquals(2L, itemSearchIndex.search("sledge", 0, 10).get(0).getId());
+        assertEquals(List.of(1L, 4L), itemSearchIndex.search("drill", 0, 10).stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void shouldKeepChangesCommittedWhileRebuildReadsItems() {
+        when(itemRepository.findByAvailableTrue()).thenAnswer(invocation -> {
+            // committed after the snapshot below was read
+            itemSearchIndex.index(ItemDto.builder().id(4L).name("Drill press").description("Bench").available(true)
+                    .build());
+            itemSearchIndex.index(ItemDto.builder().id(2L).name("Hammer").description("Heavy construction hammer")
+                    .available(false).build());
+            return List.of(
+                    Item.builder().id(1L).name("Power Drill").description("Cordless drill").available(true).build(),
+                    Item.builder().id(2L).name("Hammer").description("Heavy construction hammer").available(true)
+                            .build());
+        });
+
+        itemSearchIndex.rebuild();
+
+        assertEquals(List.of(1L, 4L), itemSearchIndex.search("drill", 0, 10).stream().map(ItemDto::getId).toList());
+        assertTrue(itemSearchIndex.search("hammer", 0, 10).isEmpty());
+    }
+
+    @Test
+    void shouldNotReplayChangesMadeBeforeRebuild() {
+        itemSearchIndex.index(ItemDto.builder().id(5L).name("Saw").description("Wood").available(true).build());
+        itemSearchIndex.rebuild();
+
+        assertTrue(itemSearchIndex.search("saw", 0, 10).isEmpty());
+    }
+}
@@ -7,11 +7,17 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -27,18 +33,24 @@ import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityIndex;
+import ru.practicum.shareit.item.dto.BulkItemResult;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemWithBookingDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemVersion;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.item.servece.impl.ItemServiceImpl;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceImplTest {
@@ -49,6 +61,9 @@ class ItemServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserExistenceChecker userExistenceChecker;
+
     @Mock
     private BookingRepository bookingRepository;
 
@@ -58,6 +73,12 @@ class ItemServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearch itemSearch;
+
+    @Mock
+    private ItemAvailabilityIndex itemAvailabilityIndex;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -89,6 +110,39 @@ class ItemServiceImplTest {
 
         assertNotNull(createdItem);
         assertEquals("Drill", createdItem.getName());
+        verify(itemSearch).index(createdItem);
+    }
+
+    @Test
+    void shouldCreateValidItemsOfChunkAndReportTheRest() {
+        ItemRequest request = ItemRequest.builder().id(1L).description("Need a drill").build();
+        Map<Integer, ItemDto> chunk = new LinkedHashMap<>();
+        chunk.put(1, ItemDto.builder().id(7L).name("Drill").description("Drill").available(true).requestId(1L).build());
+        chunk.put(3, ItemDto.builder().name(" ").description("Saw").available(true).build());
+        chunk.put(4, ItemDto.builder().name("Saw").description("Saw").available(true).requestId(9L).build());
+        chunk.put(5, ItemDto.builder().name("Hammer").description("Hammer").available(false).build());
+
+        when(userRepository.getReferenceById(2L)).thenReturn(owner);
+        when(itemRequestRepository.findAllById(Set.of(1L, 9L))).thenReturn(List.of(request));
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            for (int i = 0; i < items.size(); i++) {
+                assertNull(items.get(i).getId());
+                items.get(i).setId(100L + i);
+            }
+            return items;
+        });
+
+        List<BulkItemResult> results = itemService.createItems(2L, chunk);
+
+        assertEquals(List.of(
+                BulkItemResult.created(1, 100L),
+                BulkItemResult.failed(3, "Name cannot be blank"),
+                BulkItemResult.failed(4, "Request not found"),
+                BulkItemResult.created(5, 101L)), results);
+        verify(userExistenceChecker).requireExists(2L);
+        verify(itemSearch).index(ItemDto.builder().id(100L).name("Drill").description("Drill").available(true)
+                .requestId(1L).build());
     }
 
     @Test
@@ -136,6 +190,7 @@ class ItemServiceImplTest {
 
         assertEquals("Updated Drill", updatedItem.getName());
         assertEquals(false, updatedItem.getAvailable());
+        verify(itemSearch).index(updatedItem);
     }
 
     @Test
@@ -215,16 +270,36 @@ class ItemServiceImplTest {
         assertEquals("Item not found", exception.getMessage());
     }
 
+    @Test
+    void shouldBuildItemETagFromVersionAndComments() {
+        when(itemRepository.findVersionById(1L)).thenReturn(Optional.of(new ItemVersion(3L, 2L, 5L, 6L)));
+
+        assertEquals("3-5-6", itemService.getItemETag(1L, 1L));
+    }
+
+    @Test
+    void shouldAddLastAndNextBookingToOwnerItemETag() {
+        when(itemRepository.findVersionById(1L)).thenReturn(Optional.of(new ItemVersion(3L, 2L, 5L, 6L)));
+        when(bookingRepository.findLastApprovedIdByItemId(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(7L));
+        when(bookingRepository.findNextApprovedIdByItemId(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertEquals("3-5-6-7-0", itemService.getItemETag(1L, 2L));
+    }
+
+    @Test
+    void shouldReturnNoETagForNonExistentItem() {
+        when(itemRepository.findVersionById(99L)).thenReturn(Optional.empty());
+
+        assertNull(itemService.getItemETag(99L, 1L));
+    }
+
     @Test
     void shouldGetItemsByOwner() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
         when(itemRepository.findByOwnerIdOrderById(eq(2L), any(Pageable.class))).thenReturn(List.of(item));
-        when(commentRepository.findByItemId(1L)).thenReturn(List.of(comment));
-        when(bookingRepository.findByItemIdAndEndBeforeOrderByEndDescAllStatuses(
-                eq(1L), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of());
-        when(bookingRepository.findByItemIdAndStartAfterOrderByStartAscAllStatuses(
-                eq(1L), any(LocalDateTime.class), any(Pageable.class)))
+        when(commentRepository.findByItemIdInOrderByCreatedDesc(List.of(1L))).thenReturn(List.of(comment));
+        when(bookingRepository.findLastAndNextApprovedByItemIds(eq(List.of(1L)), any(LocalDateTime.class)))
                 .thenReturn(List.of());
 
         List<ItemWithBookingDto> items = itemService.getItemsByOwner(2L, 0, 10);
@@ -236,7 +311,7 @@ class ItemServiceImplTest {
 
     @Test
     void shouldThrowNotFoundExceptionWhenGettingItemsForNonExistentOwner() {
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("User not found")).when(userExistenceChecker).requireExists(99L);
 
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> itemService.getItemsByOwner(99L, 0, 10));
@@ -245,14 +320,9 @@ class ItemServiceImplTest {
 
     @Test
     void shouldGetAllItemsByUserId() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
         when(itemRepository.findByOwnerIdOrderById(eq(2L), any(Pageable.class))).thenReturn(List.of(item));
-        when(commentRepository.findByItemId(1L)).thenReturn(List.of(comment));
-        when(bookingRepository.findByItemIdAndEndBeforeOrderByEndDescAllStatuses(
-                eq(1L), any(LocalDateTime.class), any(Pageable.class)))
-                .thenReturn(List.of());
-        when(bookingRepository.findByItemIdAndStartAfterOrderByStartAscAllStatuses(
-                eq(1L), any(LocalDateTime.class), any(Pageable.class)))
+        when(commentRepository.findByItemIdInOrderByCreatedDesc(List.of(1L))).thenReturn(List.of(comment));
+        when(bookingRepository.findLastAndNextApprovedByItemIds(eq(List.of(1L)), any(LocalDateTime.class)))
                 .thenReturn(List.of());
 
         List<ItemWithBookingDto> items = itemService.getAllItemsByUserId(2L, 0, 10);
@@ -262,9 +332,33 @@ class ItemServiceImplTest {
         assertEquals(1, items.get(0).getComments().size());
     }
 
+    @Test
+    void shouldSplitLastAndNextBookingsWhenGettingItemsByOwner() {
+        Item otherItem = Item.builder().id(3L).name("Saw").description("Hand saw").available(true).owner(owner)
+                .build();
+        Booking nextBooking = Booking.builder().id(2L).item(item).booker(user).status(BookingStatus.APPROVED)
+                .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build();
+
+        when(itemRepository.findByOwnerIdOrderById(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(item, otherItem));
+        when(commentRepository.findByItemIdInOrderByCreatedDesc(List.of(1L, 3L))).thenReturn(List.of(comment));
+        when(bookingRepository.findLastAndNextApprovedByItemIds(eq(List.of(1L, 3L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking, nextBooking));
+
+        List<ItemWithBookingDto> items = itemService.getItemsByOwner(2L, 0, 10);
+
+        assertEquals(2, items.size());
+        assertEquals(1L, items.get(0).getLastBooking().getId());
+        assertEquals(2L, items.get(0).getNextBooking().getId());
+        assertEquals(1, items.get(0).getComments().size());
+        assertNull(items.get(1).getLastBooking());
+        assertNull(items.get(1).getNextBooking());
+        assertTrue(items.get(1).getComments().isEmpty());
+    }
+
     @Test
     void shouldThrowNotFoundExceptionWhenGettingAllItemsForNonExistentUser() {
-        when(userRepository.findById(99L)).thenReturn(Optional.empty());
+        doThrow(new NotFoundException("User not found")).when(userExistenceChecker).requireExists(99L);
 
         NotFoundException exception = assertThrows(NotFoundException.class,
                 () -> itemService.getAllItemsByUserId(99L, 0, 10));
@@ -273,7 +367,7 @@ class ItemServiceImplTest {
 
     @Test
     void shouldSearchItems() {
-        when(itemRepository.findByText(eq("drill"), any(Pageable.class))).thenReturn(List.of(item));
+        when(itemSearch.search("drill", 0, 10)).thenReturn(List.of(itemDto));
 
         List<ItemDto> foundItems = itemService.searchItems("drill", 0, 10);
 
@@ -359,7 +453,6 @@ class ItemServiceImplTest {
 
     @Test
     void shouldReturnEmptyItemsListForOwnerWithNoItems() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
         when(itemRepository.findByOwnerIdOrderById(eq(2L), any(Pageable.class))).thenReturn(List.of());
 
         List<ItemWithBookingDto> items = itemService.getItemsByOwner(2L, 0, 10);
@@ -369,11 +462,41 @@ class ItemServiceImplTest {
 
     @Test
     void shouldReturnEmptyItemsListForUserWithNoItems() {
-        when(userRepository.findById(2L)).thenReturn(Optional.of(owner));
         when(itemRepository.findByOwnerIdOrderById(eq(2L), any(Pageable.class))).thenReturn(List.of());
 
         List<ItemWithBookingDto> items = itemService.getAllItemsByUserId(2L, 0, 10);
 
         assertTrue(items.isEmpty());
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldGetAvailability() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(2);
+        List<ItemAvailabilityDto.Window> windows = List.of(new ItemAvailabilityDto.Window(from, from.plusDays(1)));
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(itemAvailabilityIndex.isFree(1L, from, to)).thenReturn(false);
+        when(itemAvailabilityIndex.freeWindows(1L, from, to)).thenReturn(windows);
+
+        ItemAvailabilityDto result = itemService.getAvailability(1L, from, to);
+
+        assertFalse(result.getFree());
+        assertEquals(windows, result.getFreeWindows());
+    }
+
+    @Test
+    void shouldThrowNotFoundExceptionWhenGettingAvailabilityOfNonExistentItem() {
+        LocalDateTime from = LocalDateTime.now();
+        when(itemRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(99L, from, from.plusDays(1)));
+    }
+
+    @Test
+    void shouldNotGetAvailabilityForEmptyPeriod() {
+        LocalDateTime from = LocalDateTime.now();
+        when(itemRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(1L, from, from));
+    }
+}
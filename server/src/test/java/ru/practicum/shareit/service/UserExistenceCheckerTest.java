@@ -0,0 +1,96 @@
+package ru.practicum.shareit.service;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCheckerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private UserExistenceChecker checker;
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAllIds()).thenReturn(List.of(1L, 3L));
+        checker.rebuild();
+    }
+
+    @Test
+    void shouldAnswerKnownIdsWithoutDatabase() {
+        assertTrue(checker.exists(1L));
+        assertTrue(checker.exists(3L));
+        assertDoesNotThrow(() -> checker.requireExists(1L));
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void shouldFallBackToDatabaseAndRememberFoundIds() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userRepository.existsById(4L)).thenReturn(false);
+
+        assertTrue(checker.exists(2L));
+        assertTrue(checker.exists(2L));
+        assertFalse(checker.exists(4L));
+        assertThrows(NotFoundException.class, () -> checker.requireExists(4L));
+        verify(userRepository, times(1)).existsById(2L);
+        verify(userRepository, times(2)).existsById(4L);
+    }
+
+    @Test
+    void shouldTrackCreatedAndDeletedUsers() {
+        checker.onUserCreated(5L);
+        checker.onUserDeleted(1L);
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertTrue(checker.exists(5L));
+        assertFalse(checker.exists(1L));
+        verify(userRepository, never()).existsById(5L);
+    }
+
+    @Test
+    void shouldNotRememberUserDeletedWhileCheckingDatabase() {
+        when(userRepository.existsById(2L))
+                .thenAnswer(invocation -> {
+                    // the deletion commits after existsById has read the user
+                    checker.onUserDeleted(2L);
+                    return true;
+                })
+                .thenReturn(false);
+
+        assertTrue(checker.exists(2L));
+        assertFalse(checker.exists(2L));
+        verify(userRepository, times(2)).existsById(2L);
+    }
+
+    @Test
+    void shouldCheckIdsOutsideBitmapRangeInDatabase() {
+        when(userRepository.existsById(Long.MAX_VALUE)).thenReturn(true);
+
+        assertTrue(checker.exists(Long.MAX_VALUE));
+        assertTrue(checker.exists(Long.MAX_VALUE));
+        verify(userRepository, times(2)).existsById(Long.MAX_VALUE);
+    }
+}
@@ -27,6 +27,7 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 import ru.practicum.shareit.user.service.impl.UserServiceImpl;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +36,9 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserExistenceChecker userExistenceChecker;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -49,13 +53,14 @@ class UserServiceImplTest {
 
     @Test
     void shouldCreateUser() {
-        when(userRepository.save(any(User.class))).thenReturn(user);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(user);
 
         UserDto createdUser = userService.createUser(userDto);
 
         assertNotNull(createdUser);
         assertEquals(userDto.getName(), createdUser.getName());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userExistenceChecker).onUserCreated(1L);
     }
 
     @Test
@@ -79,7 +84,7 @@ class UserServiceImplTest {
     void shouldUpdateUser() {
         UserDto updates = UserDto.builder().name("Jane Doe").email("jane.doe@example.com").build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         UserDto updatedUser = userService.updateUser(1L, updates);
 
@@ -95,6 +100,7 @@ class UserServiceImplTest {
         userService.deleteUser(1L);
 
         verify(userRepository, times(1)).deleteById(1L);
+        verify(userExistenceChecker).onUserDeleted(1L);
     }
 
     @Test
@@ -117,14 +123,14 @@ class UserServiceImplTest {
 
     @Test
     void shouldThrowConflictExceptionWhenCreatingUserWithDuplicateEmail() {
-        when(userRepository.save(any(User.class)))
+        when(userRepository.saveAndFlush(any(User.class)))
                 .thenThrow(new DataIntegrityViolationException("Duplicate email"));
 
         ConflictException exception = assertThrows(ConflictException.class,
                 () -> userService.createUser(userDto));
 
         assertEquals("Email already exists: john.doe@example.com", exception.getMessage());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -136,21 +142,21 @@ class UserServiceImplTest {
                 () -> userService.updateUser(99L, updates));
 
         assertEquals("User not found", exception.getMessage());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
     void shouldThrowConflictExceptionWhenUpdatingUserWithDuplicateEmail() {
         UserDto updates = UserDto.builder().email("duplicate@example.com").build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class)))
+        when(userRepository.saveAndFlush(any(User.class)))
                 .thenThrow(new DataIntegrityViolationException("Duplicate email"));
 
         ConflictException exception = assertThrows(ConflictException.class,
                 () -> userService.updateUser(1L, updates));
 
         assertEquals("Email already exists: duplicate@example.com", exception.getMessage());
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -158,7 +164,7 @@ class UserServiceImplTest {
         // Тест обновления только имени
         UserDto updates = UserDto.builder().name("Jane Doe").build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         UserDto updatedUser = userService.updateUser(1L, updates);
 
@@ -171,7 +177,7 @@ class UserServiceImplTest {
         // Тест обновления только email
         UserDto updates = UserDto.builder().email("new.email@example.com").build();
         when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         UserDto updatedUser = userService.updateUser(1L, updates);
 